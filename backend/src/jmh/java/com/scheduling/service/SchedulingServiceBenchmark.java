@@ -0,0 +1,105 @@
+package com.scheduling.service;
+
+import com.scheduling.model.BellSchedule;
+import com.scheduling.model.DayOfWeek;
+import com.scheduling.model.Schedule;
+import com.scheduling.service.SchedulingService.SchedulingRequest;
+import com.scheduling.service.SyntheticSchoolGenerator.SyntheticSchool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Benchmarks for the in-memory parts of schedule generation, on synthetic schools of 10 to 2,000 sections.
+ * The service is built without a Spring context, so nothing here touches the database.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="SchedulingServiceBenchmark -p sections=10,100"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class SchedulingServiceBenchmark {
+    
+    @Param({"10", "100", "500", "2000"})
+    public int sections;
+    
+    private SchedulingService service;
+    private SyntheticSchool school;
+    private final BellSchedule bellSchedule = BellSchedule.DEFAULT;
+    private List<SchedulingRequest> requests;
+    private List<Schedule> schedules;
+    private OccupancyGrid solvedGrid;
+    private CandidateIndex candidateIndex;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = SchedulingService.detached(new SolverMetrics(new SimpleMeterRegistry()));
+        school = SyntheticSchoolGenerator.generate(new SyntheticSchoolGenerator.Options()
+            .setSections(sections)
+            .setAssignIds(true));
+        requests = service.generateSchedulingRequests(school.getSections(), school.getSubjects(), SolverTrace.DISABLED);
+        schedules = service.constraintSatisfactionScheduling(requests, school.getTeachers(), school.getClassrooms(),
+                                                             bellSchedule, SolverProgress.NONE, SolverTrace.DISABLED);
+        
+        // Grid as the greedy pass leaves it, so probing sees a realistically crowded week
+        solvedGrid = new OccupancyGrid(school.getTeachers(), school.getClassrooms(), school.getSections());
+        for (Schedule schedule : schedules) {
+            int startSlot = bellSchedule.slotIndexOf(schedule.getStartTime());
+            int endSlot = bellSchedule.slotIndexOf(schedule.getEndTime());
+            solvedGrid.occupy(solvedGrid.teacherIndex(schedule.getTeacher()),
+                              solvedGrid.classroomIndex(schedule.getClassroom()),
+                              solvedGrid.sectionIndex(schedule.getSection()),
+                              schedule.getDayOfWeek(),
+                              OccupancyGrid.blockMask(startSlot, endSlot - startSlot));
+        }
+        candidateIndex = new CandidateIndex(school.getTeachers(), school.getClassrooms(), bellSchedule, solvedGrid);
+    }
+    
+    @Benchmark
+    public List<SchedulingRequest> generateSchedulingRequests() {
+        return service.generateSchedulingRequests(school.getSections(), school.getSubjects(), SolverTrace.DISABLED);
+    }
+    
+    @Benchmark
+    public List<Schedule> constraintSatisfactionScheduling() {
+        return service.constraintSatisfactionScheduling(requests, school.getTeachers(), school.getClassrooms(),
+                                                        bellSchedule, SolverProgress.NONE, SolverTrace.DISABLED);
+    }
+    
+    /**
+     * One slot search per request against the solved week, without placing anything
+     */
+    @Benchmark
+    public void probeSlotAvailability(Blackhole blackhole) {
+        Map<String, Set<String>> sectionDaySubjects = new HashMap<>();
+        LongAdder probes = new LongAdder();
+        for (SchedulingRequest request : requests) {
+            List<DayOfWeek> days = SchedulingService.getAvailableDaysForSection(request.getSection());
+            blackhole.consume(service.findOptimalSchedule(request, candidateIndex, days, bellSchedule, solvedGrid,
+                                                          sectionDaySubjects, SolverTrace.DISABLED, probes));
+        }
+        blackhole.consume(probes.sum());
+    }
+    
+    @Benchmark
+    public CandidateIndex buildCandidateIndex() {
+        return new CandidateIndex(school.getTeachers(), school.getClassrooms(), bellSchedule, solvedGrid);
+    }
+    
+    @Benchmark
+    public Map<String, Object> generateStatistics() {
+        return service.generateStatistics(schedules);
+    }
+}
@@ -0,0 +1,114 @@
+package com.scheduling.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scheduling.repository.ClassroomRepository;
+import com.scheduling.repository.SectionRepository;
+import com.scheduling.repository.SubjectRepository;
+import com.scheduling.repository.TeacherRepository;
+import com.scheduling.service.SyntheticSchoolGenerator;
+import com.scheduling.service.SyntheticSchoolGenerator.SyntheticSchool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fills the database with a synthetic school on startup (scheduling.synthetic.enabled=true).
+ * When scheduling.synthetic.json-output is set the school is written to that file instead,
+ * so the same dataset can be replayed through the REST API.
+ */
+@Component
+@ConditionalOnProperty(name = "scheduling.synthetic.enabled", havingValue = "true")
+public class SyntheticDataLoader implements CommandLineRunner {
+    
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataLoader.class);
+    
+    @Autowired
+    private SubjectRepository subjectRepository;
+    
+    @Autowired
+    private SectionRepository sectionRepository;
+    
+    @Autowired
+    private TeacherRepository teacherRepository;
+    
+    @Autowired
+    private ClassroomRepository classroomRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${scheduling.synthetic.sections:30}")
+    private int sections;
+    
+    @Value("${scheduling.synthetic.subjects:8}")
+    private int subjects;
+    
+    @Value("${scheduling.synthetic.qualification-density:0.15}")
+    private double qualificationDensity;
+    
+    // e.g. "Lecture Room=3,Computer Lab=1"; types not listed get rooms in proportion to their hours
+    @Value("${scheduling.synthetic.room-type-ratios:}")
+    private String roomTypeRatios;
+    
+    @Value("${scheduling.synthetic.tth-share:0.33}")
+    private double tthShare;
+    
+    @Value("${scheduling.synthetic.seed:42}")
+    private long seed;
+    
+    @Value("${scheduling.synthetic.json-output:}")
+    private String jsonOutput;
+    
+    @Override
+    public void run(String... args) throws IOException {
+        SyntheticSchool school = SyntheticSchoolGenerator.generate(new SyntheticSchoolGenerator.Options()
+            .setSections(sections)
+            .setSubjects(subjects)
+            .setQualificationDensity(qualificationDensity)
+            .setRoomTypeRatios(parseRatios(roomTypeRatios))
+            .setTthShare(tthShare)
+            .setSeed(seed));
+        
+        if (!jsonOutput.isBlank()) {
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(Path.of(jsonOutput).toFile(), school);
+            log.info("Synthetic school written to {}: {}", jsonOutput, summary(school));
+            return;
+        }
+        
+        if (sectionRepository.count() > 0 || subjectRepository.count() > 0) {
+            log.warn("Synthetic school not loaded: the database already has sections or subjects");
+            return;
+        }
+        
+        subjectRepository.saveAll(school.getSubjects());
+        sectionRepository.saveAll(school.getSections());
+        teacherRepository.saveAll(school.getTeachers());
+        classroomRepository.saveAll(school.getClassrooms());
+        log.info("Synthetic school loaded: {}", summary(school));
+    }
+    
+    private static Map<String, Double> parseRatios(String spec) {
+        Map<String, Double> ratios = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            int separator = entry.indexOf('=');
+            if (separator > 0) {
+                ratios.put(entry.substring(0, separator).trim(), Double.parseDouble(entry.substring(separator + 1).trim()));
+            }
+        }
+        return ratios;
+    }
+    
+    private static String summary(SyntheticSchool school) {
+        return school.getSections().size() + " sections, " + school.getSubjects().size() + " subjects, " +
+               school.getTeachers().size() + " teachers, " + school.getClassrooms().size() + " classrooms";
+    }
+}
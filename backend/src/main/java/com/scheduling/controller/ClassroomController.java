@@ -2,6 +2,7 @@ package com.scheduling.controller;
 
 import com.scheduling.model.Classroom;
 import com.scheduling.repository.ClassroomRepository;
+import com.scheduling.service.ReferenceDataCache;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -19,6 +20,9 @@ public class ClassroomController {
     @Autowired
     private ClassroomRepository classroomRepository;
     
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+    
     @GetMapping
     public ResponseEntity<List<Classroom>> getAllClassrooms() {
         List<Classroom> classrooms = classroomRepository.findAll();
@@ -36,6 +40,7 @@ public class ClassroomController {
     public ResponseEntity<Classroom> createClassroom(@Valid @RequestBody Classroom classroom) {
         try {
             Classroom savedClassroom = classroomRepository.save(classroom);
+            referenceDataCache.invalidate();
             return ResponseEntity.status(HttpStatus.CREATED).body(savedClassroom);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -55,6 +60,7 @@ public class ClassroomController {
             classroom.setDescription(classroomDetails.getDescription());
             
             Classroom updatedClassroom = classroomRepository.save(classroom);
+            referenceDataCache.invalidate();
             return ResponseEntity.ok(updatedClassroom);
         } else {
             return ResponseEntity.notFound().build();
@@ -65,6 +71,7 @@ public class ClassroomController {
     public ResponseEntity<Void> deleteClassroom(@PathVariable Long id) {
         if (classroomRepository.existsById(id)) {
             classroomRepository.deleteById(id);
+            referenceDataCache.invalidate();
             return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.notFound().build();
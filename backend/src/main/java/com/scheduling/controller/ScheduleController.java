@@ -1,18 +1,33 @@
 package com.scheduling.controller;
 
+import com.scheduling.dto.ScheduleFilter;
+import com.scheduling.dto.SchedulePage;
+import com.scheduling.dto.ScheduleRow;
+import com.scheduling.model.DayOfWeek;
 import com.scheduling.model.Schedule;
 import com.scheduling.model.SchoolYear;
 import com.scheduling.repository.ScheduleRepository;
 import com.scheduling.repository.SchoolYearRepository;
+import com.scheduling.service.ScheduleChangedEvent;
+import com.scheduling.service.ScheduleConflictIndex;
+import com.scheduling.service.ScheduleExportService;
+import com.scheduling.service.ScheduleQueryService;
 import com.scheduling.service.SchedulingService;
 import com.scheduling.service.SchedulingResult;
+import com.scheduling.service.TimetableReadModel;
+import com.scheduling.service.UtilizationCounters;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -23,6 +38,8 @@ import java.util.Optional;
 @CrossOrigin(origins = "http://localhost:3000")
 public class ScheduleController {
     
+    private static final String CONFLICTS_HEADER = "X-Schedule-Conflicts";
+    
     @Autowired
     private ScheduleRepository scheduleRepository;
     
@@ -32,6 +49,24 @@ public class ScheduleController {
     @Autowired
     private SchedulingService schedulingService;
     
+    @Autowired
+    private ScheduleConflictIndex scheduleConflictIndex;
+    
+    @Autowired
+    private ScheduleQueryService scheduleQueryService;
+    
+    @Autowired
+    private ScheduleExportService scheduleExportService;
+    
+    @Autowired
+    private TimetableReadModel timetableReadModel;
+    
+    @Autowired
+    private UtilizationCounters utilizationCounters;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     @GetMapping
     public ResponseEntity<List<Schedule>> getAllSchedules() {
         List<Schedule> schedules = scheduleRepository.findAll();
@@ -49,6 +84,68 @@ public class ScheduleController {
         return ResponseEntity.ok(schedules);
     }
     
+    /**
+     * All schedules as flat rows (ids, names, times, day, status), loaded with a single query
+     */
+    @GetMapping("/rows")
+    public ResponseEntity<List<ScheduleRow>> getScheduleRows(@RequestParam(required = false) Long schoolYearId) {
+        List<ScheduleRow> rows = schoolYearId != null
+            ? scheduleRepository.findRowsBySchoolYearId(schoolYearId)
+            : scheduleRepository.findAllRows();
+        return ResponseEntity.ok(rows);
+    }
+    
+    /**
+     * One page of schedule rows ordered by (day, start time, id), optionally filtered by teacher,
+     * section, classroom, subject, status and school year. Pass the returned nextCursor as
+     * cursor to continue.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<SchedulePage> getSchedulePage(ScheduleFilter filter,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "" + ScheduleQueryService.DEFAULT_PAGE_SIZE) int limit) {
+        try {
+            return ResponseEntity.ok(scheduleQueryService.findPage(filter, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * A teacher's, section's or classroom's week from the precomputed timetable read model
+     */
+    @GetMapping("/timetable/{view}/{id}")
+    public ResponseEntity<Map<DayOfWeek, List<ScheduleRow>>> getTimetable(@PathVariable String view, @PathVariable Long id) {
+        TimetableReadModel.View timetableView;
+        try {
+            timetableView = TimetableReadModel.View.valueOf(view.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(timetableReadModel.week(timetableView, id));
+    }
+    
+    /**
+     * Every schedule (or one school year's) streamed as NDJSON or CSV without loading the timetable into memory
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSchedules(@RequestParam(defaultValue = "ndjson") String format,
+                                                                 @RequestParam(required = false) Long schoolYearId) {
+        ScheduleExportService.Format exportFormat;
+        try {
+            exportFormat = ScheduleExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        boolean csv = exportFormat == ScheduleExportService.Format.CSV;
+        StreamingResponseBody body = out -> scheduleExportService.export(schoolYearId, exportFormat, out);
+        return ResponseEntity.ok()
+            .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.parseMediaType("application/x-ndjson"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"schedules." + (csv ? "csv" : "ndjson") + "\"")
+            .body(body);
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<Schedule> getScheduleById(@PathVariable Long id) {
         Optional<Schedule> schedule = scheduleRepository.findById(id);
@@ -56,34 +153,70 @@ public class ScheduleController {
                       .orElse(ResponseEntity.notFound().build());
     }
     
+    /**
+     * Create a schedule entry. Double bookings of the teacher, classroom or section are rejected
+     * with 409 and the clashing entries, unless allowConflicts is set; then the entry is saved
+     * and the number of clashes is reported in the X-Schedule-Conflicts header.
+     */
     @PostMapping
-    public ResponseEntity<Schedule> createSchedule(@Valid @RequestBody Schedule schedule) {
+    public ResponseEntity<?> createSchedule(@Valid @RequestBody Schedule schedule,
+                                            @RequestParam(defaultValue = "false") boolean allowConflicts) {
         try {
-            Schedule savedSchedule = scheduleRepository.save(schedule);
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedSchedule);
+            // Checked and saved under the index lock, so a concurrent request cannot take the same slot
+            ScheduleConflictIndex.CheckedWrite write =
+                scheduleConflictIndex.checkAndSave(schedule, allowConflicts, () -> scheduleRepository.save(schedule));
+            if (write.isRejected()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(write.getConflicts());
+            }
+            
+            Schedule savedSchedule = write.getSaved();
+            eventPublisher.publishEvent(ScheduleChangedEvent.saved(List.of(savedSchedule)));
+            return ResponseEntity.status(HttpStatus.CREATED)
+                                 .header(CONFLICTS_HEADER, String.valueOf(write.getConflicts().size()))
+                                 .body(savedSchedule);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
     @PutMapping("/{id}")
-    public ResponseEntity<Schedule> updateSchedule(@PathVariable Long id, @Valid @RequestBody Schedule scheduleDetails) {
+    public ResponseEntity<?> updateSchedule(@PathVariable Long id, @Valid @RequestBody Schedule scheduleDetails,
+                                            @RequestParam(defaultValue = "false") boolean allowConflicts) {
         Optional<Schedule> optionalSchedule = scheduleRepository.findById(id);
         
         if (optionalSchedule.isPresent()) {
             Schedule schedule = optionalSchedule.get();
-            schedule.setDate(scheduleDetails.getDate());
-            schedule.setStartTime(scheduleDetails.getStartTime());
-            schedule.setEndTime(scheduleDetails.getEndTime());
-            schedule.setDayOfWeek(scheduleDetails.getDayOfWeek());
-            schedule.setTeacher(scheduleDetails.getTeacher());
-            schedule.setClassroom(scheduleDetails.getClassroom());
-            schedule.setSubject(scheduleDetails.getSubject());
-            schedule.setNotes(scheduleDetails.getNotes());
-            schedule.setRecurring(scheduleDetails.isRecurring());
             
-            Schedule updatedSchedule = scheduleRepository.save(schedule);
-            return ResponseEntity.ok(updatedSchedule);
+            // Check the entry as it will be after the update; the section and school year are not changed here
+            scheduleDetails.setId(id);
+            scheduleDetails.setSection(schedule.getSection());
+            scheduleDetails.setSchoolYear(schedule.getSchoolYear());
+            try {
+                ScheduleConflictIndex.CheckedWrite write =
+                    scheduleConflictIndex.checkAndSave(scheduleDetails, allowConflicts, () -> {
+                        schedule.setDate(scheduleDetails.getDate());
+                        schedule.setStartTime(scheduleDetails.getStartTime());
+                        schedule.setEndTime(scheduleDetails.getEndTime());
+                        schedule.setDayOfWeek(scheduleDetails.getDayOfWeek());
+                        schedule.setTeacher(scheduleDetails.getTeacher());
+                        schedule.setClassroom(scheduleDetails.getClassroom());
+                        schedule.setSubject(scheduleDetails.getSubject());
+                        schedule.setNotes(scheduleDetails.getNotes());
+                        schedule.setRecurring(scheduleDetails.isRecurring());
+                        return scheduleRepository.save(schedule);
+                    });
+                if (write.isRejected()) {
+                    return ResponseEntity.status(HttpStatus.CONFLICT).body(write.getConflicts());
+                }
+                
+                Schedule updatedSchedule = write.getSaved();
+                eventPublisher.publishEvent(ScheduleChangedEvent.saved(List.of(updatedSchedule)));
+                return ResponseEntity.ok()
+                                     .header(CONFLICTS_HEADER, String.valueOf(write.getConflicts().size()))
+                                     .body(updatedSchedule);
+            } catch (Exception e) {
+                return ResponseEntity.badRequest().build();
+            }
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -93,6 +226,7 @@ public class ScheduleController {
     public ResponseEntity<Void> deleteSchedule(@PathVariable Long id) {
         if (scheduleRepository.existsById(id)) {
             scheduleRepository.deleteById(id);
+            eventPublisher.publishEvent(ScheduleChangedEvent.removed(id));
             return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.notFound().build();
@@ -115,9 +249,9 @@ public class ScheduleController {
     }
     
     @PostMapping("/generate-optimized")
-    public ResponseEntity<SchedulingResult> generateOptimizedSchedule() {
+    public ResponseEntity<SchedulingResult> generateOptimizedSchedule(@RequestParam(defaultValue = "1") int starts) {
         try {
-            SchedulingResult result = schedulingService.generateOptimizedSchedule();
+            SchedulingResult result = schedulingService.generateOptimizedSchedule(starts);
             return ResponseEntity.ok(result);
         } catch (Exception e) {
             SchedulingResult errorResult = new SchedulingResult();
@@ -127,6 +261,38 @@ public class ScheduleController {
         }
     }
     
+    /**
+     * Re-place only the entries made infeasible by a change to one teacher, classroom, section or subject
+     */
+    @PostMapping("/reschedule")
+    public ResponseEntity<SchedulingResult> rescheduleAffected(
+            @RequestParam(required = false) Long teacherId,
+            @RequestParam(required = false) Long classroomId,
+            @RequestParam(required = false) Long sectionId,
+            @RequestParam(required = false) Long subjectId) {
+        if (teacherId == null && classroomId == null && sectionId == null && subjectId == null) {
+            SchedulingResult errorResult = new SchedulingResult();
+            errorResult.setSuccess(false);
+            errorResult.setMessage("Specify a teacherId, classroomId, sectionId or subjectId");
+            return ResponseEntity.badRequest().body(errorResult);
+        }
+        
+        SchedulingResult result = schedulingService.rescheduleAffected(teacherId, classroomId, sectionId, subjectId);
+        return result.isSuccess() ? ResponseEntity.ok(result) : ResponseEntity.badRequest().body(result);
+    }
+    
+    /**
+     * Dump the last solver trace events of a run from the most recent generation (run -1 = request generation)
+     */
+    @GetMapping("/trace")
+    public ResponseEntity<List<Map<String, Object>>> getSolverTrace(
+            @RequestParam(defaultValue = "0") int run,
+            @RequestParam(defaultValue = "200") int limit) {
+        return schedulingService.getTraceEvents(run, limit)
+                                .map(ResponseEntity::ok)
+                                .orElse(ResponseEntity.notFound().build());
+    }
+    
     @GetMapping("/test-consecutive")
     public ResponseEntity<String> testConsecutiveScheduling() {
         return ResponseEntity.ok("✅ Consecutive scheduling feature is active!\n\n" +
@@ -144,22 +310,29 @@ public class ScheduleController {
             "✅ ENSURES: Each subject appears only once per day, with consecutive hours");
     }
     
+    /**
+     * Date-by-date weekly generation was never implemented; use /generate, which places a whole
+     * weekly timetable
+     */
     @PostMapping("/generate-weekly")
-    public ResponseEntity<List<Schedule>> generateWeeklySchedule(
-            @RequestBody List<SchedulingService.SchedulingRequest> requests,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate weekStart) {
-        try {
-            List<Schedule> generatedSchedules = schedulingService.generateWeeklySchedule(requests, weekStart);
-            return ResponseEntity.ok(generatedSchedules);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
-        }
+    public ResponseEntity<List<Schedule>> generateWeeklySchedule() {
+        return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build();
     }
     
+    /**
+     * Without a date range: the incrementally maintained utilization counters (an O(1) read).
+     * With startDate and endDate: aggregates over the schedules dated in that range.
+     */
     @GetMapping("/statistics")
     public ResponseEntity<Map<String, Object>> getScheduleStatistics(
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        if (startDate == null && endDate == null) {
+            return ResponseEntity.ok(utilizationCounters.snapshot());
+        }
+        if (startDate == null || endDate == null) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
             Map<String, Object> statistics = schedulingService.getScheduleStatistics(startDate, endDate);
             return ResponseEntity.ok(statistics);
@@ -2,6 +2,7 @@ package com.scheduling.controller;
 
 import com.scheduling.model.SchoolYear;
 import com.scheduling.repository.SchoolYearRepository;
+import com.scheduling.service.ReferenceDataCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,6 +20,9 @@ public class SchoolYearController {
     @Autowired
     private SchoolYearRepository schoolYearRepository;
     
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+    
     @GetMapping
     public ResponseEntity<List<SchoolYear>> getAllSchoolYears() {
         List<SchoolYear> schoolYears = schoolYearRepository.findAllByOrderByNameDesc();
@@ -46,6 +50,11 @@ public class SchoolYearController {
             return ResponseEntity.badRequest().build();
         }
         
+        // Reject bell schedules the scheduler cannot represent
+        if (!isValidBellSchedule(schoolYear)) {
+            return ResponseEntity.badRequest().build();
+        }
+        
         // If this is set as active, deactivate all others
         if (schoolYear.getIsActive()) {
             schoolYearRepository.findAll().forEach(sy -> {
@@ -55,6 +64,7 @@ public class SchoolYearController {
         }
         
         SchoolYear savedSchoolYear = schoolYearRepository.save(schoolYear);
+        referenceDataCache.invalidate();
         return ResponseEntity.ok(savedSchoolYear);
     }
     
@@ -73,6 +83,10 @@ public class SchoolYearController {
             return ResponseEntity.badRequest().build();
         }
         
+        if (!isValidBellSchedule(schoolYearDetails)) {
+            return ResponseEntity.badRequest().build();
+        }
+        
         // If this is set as active, deactivate all others
         if (schoolYearDetails.getIsActive() && !schoolYear.getIsActive()) {
             schoolYearRepository.findAll().forEach(sy -> {
@@ -86,8 +100,13 @@ public class SchoolYearController {
         schoolYear.setEndDate(schoolYearDetails.getEndDate());
         schoolYear.setDescription(schoolYearDetails.getDescription());
         schoolYear.setIsActive(schoolYearDetails.getIsActive());
+        schoolYear.setDayStartTime(schoolYearDetails.getDayStartTime());
+        schoolYear.setDayEndTime(schoolYearDetails.getDayEndTime());
+        schoolYear.setSlotMinutes(schoolYearDetails.getSlotMinutes());
+        schoolYear.setBreakPeriods(schoolYearDetails.getBreakPeriods());
         
         SchoolYear updatedSchoolYear = schoolYearRepository.save(schoolYear);
+        referenceDataCache.invalidate();
         return ResponseEntity.ok(updatedSchoolYear);
     }
     
@@ -108,6 +127,7 @@ public class SchoolYearController {
         SchoolYear schoolYear = schoolYearOptional.get();
         schoolYear.setIsActive(true);
         SchoolYear updatedSchoolYear = schoolYearRepository.save(schoolYear);
+        referenceDataCache.invalidate();
         
         return ResponseEntity.ok(updatedSchoolYear);
     }
@@ -125,6 +145,16 @@ public class SchoolYearController {
         // }
         
         schoolYearRepository.deleteById(id);
+        referenceDataCache.invalidate();
         return ResponseEntity.ok().build();
     }
+    
+    private boolean isValidBellSchedule(SchoolYear schoolYear) {
+        try {
+            schoolYear.getBellSchedule();
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
 }
@@ -2,6 +2,7 @@ package com.scheduling.controller;
 
 import com.scheduling.model.Section;
 import com.scheduling.repository.SectionRepository;
+import com.scheduling.service.ReferenceDataCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,9 +18,12 @@ public class SectionController {
     @Autowired
     private SectionRepository sectionRepository;
     
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+    
     @GetMapping
     public List<Section> getAllSections() {
-        return sectionRepository.findAll();
+        return sectionRepository.findAllWithAvailableDays();
     }
     
     @GetMapping("/{id}")
@@ -30,7 +34,9 @@ public class SectionController {
     
     @PostMapping
     public Section createSection(@RequestBody Section section) {
-        return sectionRepository.save(section);
+        Section savedSection = sectionRepository.save(section);
+        referenceDataCache.invalidate();
+        return savedSection;
     }
     
     @PutMapping("/{id}")
@@ -45,6 +51,7 @@ public class SectionController {
             updatedSection.setDescription(sectionDetails.getDescription());
             
             Section savedSection = sectionRepository.save(updatedSection);
+            referenceDataCache.invalidate();
             return ResponseEntity.ok(savedSection);
         } else {
             return ResponseEntity.notFound().build();
@@ -55,6 +62,7 @@ public class SectionController {
     public ResponseEntity<?> deleteSection(@PathVariable Long id) {
         if (sectionRepository.existsById(id)) {
             sectionRepository.deleteById(id);
+            referenceDataCache.invalidate();
             return ResponseEntity.ok().build();
         } else {
             return ResponseEntity.notFound().build();
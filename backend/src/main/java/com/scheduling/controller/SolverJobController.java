@@ -0,0 +1,69 @@
+package com.scheduling.controller;
+
+import com.scheduling.service.SchedulingResult;
+import com.scheduling.service.SolverJob;
+import com.scheduling.service.SolverJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/schedules/jobs")
+@CrossOrigin(origins = "http://localhost:3000")
+public class SolverJobController {
+    
+    @Autowired
+    private SolverJobService solverJobService;
+    
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> submitJob(@RequestParam(defaultValue = "1") int starts) {
+        try {
+            SolverJob job = solverJobService.submit(starts);
+            return ResponseEntity.accepted()
+                                 .location(URI.create("/api/schedules/jobs/" + job.getId()))
+                                 .body(job.toStatus());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+    
+    @GetMapping("/{jobId}")
+    public ResponseEntity<Map<String, Object>> getJobStatus(@PathVariable String jobId) {
+        return solverJobService.getJob(jobId)
+                               .map(job -> ResponseEntity.ok(job.toStatus()))
+                               .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/{jobId}/result")
+    public ResponseEntity<SchedulingResult> getJobResult(@PathVariable String jobId) {
+        Optional<SolverJob> job = solverJobService.getJob(jobId);
+        if (!job.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        if (!job.get().isFinished()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        
+        SchedulingResult result = job.get().getResult();
+        if (result == null) {
+            result = new SchedulingResult();
+            result.setSuccess(false);
+            result.setMessage(String.valueOf(job.get().toStatus().get("message")));
+        }
+        return ResponseEntity.ok(result);
+    }
+    
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<Map<String, Object>> cancelJob(@PathVariable String jobId) {
+        return solverJobService.cancel(jobId)
+                               .map(job -> ResponseEntity.accepted().body(job.toStatus()))
+                               .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -2,6 +2,7 @@ package com.scheduling.controller;
 
 import com.scheduling.model.Subject;
 import com.scheduling.repository.SubjectRepository;
+import com.scheduling.service.ReferenceDataCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,6 +18,9 @@ public class SubjectController {
     @Autowired
     private SubjectRepository subjectRepository;
     
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+    
     @GetMapping
     public List<Subject> getAllSubjects() {
         return subjectRepository.findAllOrderByPriority();
@@ -30,7 +34,9 @@ public class SubjectController {
     
     @PostMapping
     public Subject createSubject(@RequestBody Subject subject) {
-        return subjectRepository.save(subject);
+        Subject savedSubject = subjectRepository.save(subject);
+        referenceDataCache.invalidate();
+        return savedSubject;
     }
     
     @PutMapping("/{id}")
@@ -46,6 +52,7 @@ public class SubjectController {
             updatedSubject.setDescription(subjectDetails.getDescription());
             
             Subject savedSubject = subjectRepository.save(updatedSubject);
+            referenceDataCache.invalidate();
             return ResponseEntity.ok(savedSubject);
         } else {
             return ResponseEntity.notFound().build();
@@ -56,6 +63,7 @@ public class SubjectController {
     public ResponseEntity<?> deleteSubject(@PathVariable Long id) {
         if (subjectRepository.existsById(id)) {
             subjectRepository.deleteById(id);
+            referenceDataCache.invalidate();
             return ResponseEntity.ok().build();
         } else {
             return ResponseEntity.notFound().build();
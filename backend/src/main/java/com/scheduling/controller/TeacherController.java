@@ -2,6 +2,7 @@ package com.scheduling.controller;
 
 import com.scheduling.model.Teacher;
 import com.scheduling.repository.TeacherRepository;
+import com.scheduling.service.ReferenceDataCache;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -19,9 +20,12 @@ public class TeacherController {
     @Autowired
     private TeacherRepository teacherRepository;
     
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+    
     @GetMapping
     public ResponseEntity<List<Teacher>> getAllTeachers() {
-        List<Teacher> teachers = teacherRepository.findAll();
+        List<Teacher> teachers = teacherRepository.findAllWithCollections();
         return ResponseEntity.ok(teachers);
     }
     
@@ -36,6 +40,7 @@ public class TeacherController {
     public ResponseEntity<Teacher> createTeacher(@Valid @RequestBody Teacher teacher) {
         try {
             Teacher savedTeacher = teacherRepository.save(teacher);
+            referenceDataCache.invalidate();
             return ResponseEntity.status(HttpStatus.CREATED).body(savedTeacher);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -59,6 +64,7 @@ public class TeacherController {
             teacher.setNotes(teacherDetails.getNotes());
             
             Teacher updatedTeacher = teacherRepository.save(teacher);
+            referenceDataCache.invalidate();
             return ResponseEntity.ok(updatedTeacher);
         } else {
             return ResponseEntity.notFound().build();
@@ -69,6 +75,7 @@ public class TeacherController {
     public ResponseEntity<Void> deleteTeacher(@PathVariable Long id) {
         if (teacherRepository.existsById(id)) {
             teacherRepository.deleteById(id);
+            referenceDataCache.invalidate();
             return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.notFound().build();
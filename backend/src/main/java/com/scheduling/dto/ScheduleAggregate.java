@@ -0,0 +1,46 @@
+package com.scheduling.dto;
+
+import com.scheduling.model.DayOfWeek;
+
+/**
+ * Number of schedule entries and their total minutes for one subject, teacher, classroom or day.
+ * Built by GROUP BY constructor expressions, so statistics never load schedule rows.
+ */
+public class ScheduleAggregate {
+    
+    private final Long id;
+    private final String name;
+    private final long count;
+    private final long totalMinutes;
+    
+    public ScheduleAggregate(Long id, String name, Long count, Long totalMinutes) {
+        this.id = id;
+        this.name = name;
+        this.count = count != null ? count : 0;
+        this.totalMinutes = totalMinutes != null ? totalMinutes : 0;
+    }
+    
+    public ScheduleAggregate(Long id, String firstName, String lastName, Long count, Long totalMinutes) {
+        this(id, firstName + " " + lastName, count, totalMinutes);
+    }
+    
+    public ScheduleAggregate(DayOfWeek day, Long count, Long totalMinutes) {
+        this(null, day != null ? day.name() : null, count, totalMinutes);
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    public long getTotalMinutes() {
+        return totalMinutes;
+    }
+}
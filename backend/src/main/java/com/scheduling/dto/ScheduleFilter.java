@@ -0,0 +1,64 @@
+package com.scheduling.dto;
+
+import com.scheduling.model.ScheduleStatus;
+
+/**
+ * Optional filters for schedule listings, bound from query parameters; null means "any"
+ */
+public class ScheduleFilter {
+    
+    private Long teacherId;
+    private Long sectionId;
+    private Long classroomId;
+    private Long subjectId;
+    private ScheduleStatus status;
+    private Long schoolYearId;
+    
+    public Long getTeacherId() {
+        return teacherId;
+    }
+    
+    public void setTeacherId(Long teacherId) {
+        this.teacherId = teacherId;
+    }
+    
+    public Long getSectionId() {
+        return sectionId;
+    }
+    
+    public void setSectionId(Long sectionId) {
+        this.sectionId = sectionId;
+    }
+    
+    public Long getClassroomId() {
+        return classroomId;
+    }
+    
+    public void setClassroomId(Long classroomId) {
+        this.classroomId = classroomId;
+    }
+    
+    public Long getSubjectId() {
+        return subjectId;
+    }
+    
+    public void setSubjectId(Long subjectId) {
+        this.subjectId = subjectId;
+    }
+    
+    public ScheduleStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(ScheduleStatus status) {
+        this.status = status;
+    }
+    
+    public Long getSchoolYearId() {
+        return schoolYearId;
+    }
+    
+    public void setSchoolYearId(Long schoolYearId) {
+        this.schoolYearId = schoolYearId;
+    }
+}
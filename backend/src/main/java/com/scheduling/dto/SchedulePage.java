@@ -0,0 +1,26 @@
+package com.scheduling.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated schedule listing. Pass {@code nextCursor} back as
+ * {@code cursor} to get the following page; it is null on the last page.
+ */
+public class SchedulePage {
+    
+    private final List<ScheduleRow> rows;
+    private final String nextCursor;
+    
+    public SchedulePage(List<ScheduleRow> rows, String nextCursor) {
+        this.rows = rows;
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<ScheduleRow> getRows() {
+        return rows;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,131 @@
+package com.scheduling.dto;
+
+import com.scheduling.model.DayOfWeek;
+import com.scheduling.model.ScheduleStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Flat, read-only view of a schedule entry with the names of everything it references.
+ * Built by a JPQL constructor expression, so a list of rows is one joined SELECT and never
+ * touches the lazy associations of {@link com.scheduling.model.Schedule}.
+ */
+public class ScheduleRow {
+    
+    private final Long id;
+    private final LocalDate date;
+    private final DayOfWeek dayOfWeek;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final ScheduleStatus status;
+    private final boolean recurring;
+    private final Integer durationIndex;
+    private final Long teacherId;
+    private final String teacherName;
+    private final Long classroomId;
+    private final String roomName;
+    private final Long sectionId;
+    private final String sectionName;
+    private final Long subjectId;
+    private final String subjectName;
+    private final String subjectCode;
+    private final Long schoolYearId;
+    
+    public ScheduleRow(Long id, LocalDate date, DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime,
+                       ScheduleStatus status, boolean recurring, Integer durationIndex,
+                       Long teacherId, String teacherFirstName, String teacherLastName,
+                       Long classroomId, String roomName, Long sectionId, String sectionName,
+                       Long subjectId, String subjectName, String subjectCode, Long schoolYearId) {
+        this.id = id;
+        this.date = date;
+        this.dayOfWeek = dayOfWeek;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.status = status;
+        this.recurring = recurring;
+        this.durationIndex = durationIndex;
+        this.teacherId = teacherId;
+        this.teacherName = teacherFirstName + " " + teacherLastName;
+        this.classroomId = classroomId;
+        this.roomName = roomName;
+        this.sectionId = sectionId;
+        this.sectionName = sectionName;
+        this.subjectId = subjectId;
+        this.subjectName = subjectName;
+        this.subjectCode = subjectCode;
+        this.schoolYearId = schoolYearId;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public DayOfWeek getDayOfWeek() {
+        return dayOfWeek;
+    }
+    
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+    
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+    
+    public ScheduleStatus getStatus() {
+        return status;
+    }
+    
+    public boolean isRecurring() {
+        return recurring;
+    }
+    
+    public Integer getDurationIndex() {
+        return durationIndex;
+    }
+    
+    public Long getTeacherId() {
+        return teacherId;
+    }
+    
+    public String getTeacherName() {
+        return teacherName;
+    }
+    
+    public Long getClassroomId() {
+        return classroomId;
+    }
+    
+    public String getRoomName() {
+        return roomName;
+    }
+    
+    public Long getSectionId() {
+        return sectionId;
+    }
+    
+    public String getSectionName() {
+        return sectionName;
+    }
+    
+    public Long getSubjectId() {
+        return subjectId;
+    }
+    
+    public String getSubjectName() {
+        return subjectName;
+    }
+    
+    public String getSubjectCode() {
+        return subjectCode;
+    }
+    
+    public Long getSchoolYearId() {
+        return schoolYearId;
+    }
+}
@@ -0,0 +1,185 @@
+package com.scheduling.model;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable bell schedule for a school day.
+ * The day is cut into equal slots starting at {@code dayStart}; slot {@code i} always starts at
+ * {@code dayStart + i * slotMinutes}, so index and time convert both ways in O(1). Slots that
+ * overlap a break stay in the grid but are masked out, and the valid start slots for every
+ * lesson length are precomputed so the scheduler only works with ints and bitmasks.
+ */
+public final class BellSchedule {
+    
+    public static final int MAX_SLOTS = Long.SIZE;
+    
+    public static final BellSchedule DEFAULT = new BellSchedule(
+        LocalTime.of(8, 0), LocalTime.of(16, 30), 15,
+        List.of(
+            new BreakPeriod(LocalTime.of(9, 0), LocalTime.of(9, 15)),    // Morning break
+            new BreakPeriod(LocalTime.of(12, 15), LocalTime.of(13, 15)), // Lunch
+            new BreakPeriod(LocalTime.of(16, 15), LocalTime.of(16, 30))  // Afternoon break
+        ));
+    
+    private final LocalTime dayStart;
+    private final int slotMinutes;
+    private final int slotCount;
+    private final List<BreakPeriod> breaks;
+    
+    private final int startSecond;
+    private final int slotSeconds;
+    private final LocalTime[] boundaries; // boundaries[i] = start of slot i, boundaries[slotCount] = end of day
+    
+    private final long breakMask;
+    private final long teachableMask;
+    private final long[] runStarts; // runStarts[k] = slots where a k-slot lesson can start without crossing a break
+    
+    public BellSchedule(LocalTime dayStart, LocalTime dayEnd, int slotMinutes, Collection<BreakPeriod> breaks) {
+        if (dayStart == null || dayEnd == null || !dayEnd.isAfter(dayStart)) {
+            throw new IllegalArgumentException("Day end must be after day start");
+        }
+        if (slotMinutes <= 0) {
+            throw new IllegalArgumentException("Slot length must be positive");
+        }
+        
+        this.dayStart = dayStart;
+        this.slotMinutes = slotMinutes;
+        this.startSecond = dayStart.toSecondOfDay();
+        this.slotSeconds = slotMinutes * 60;
+        this.slotCount = (dayEnd.toSecondOfDay() - startSecond) / slotSeconds;
+        
+        if (slotCount > MAX_SLOTS) {
+            throw new IllegalArgumentException(String.format(
+                "A day of %d slots exceeds the maximum of %d; use longer slots or a shorter day", slotCount, MAX_SLOTS));
+        }
+        
+        this.boundaries = new LocalTime[slotCount + 1];
+        for (int i = 0; i <= slotCount; i++) {
+            boundaries[i] = dayStart.plusMinutes((long) i * slotMinutes);
+        }
+        
+        List<BreakPeriod> breakList = new ArrayList<>();
+        long mask = 0L;
+        if (breaks != null) {
+            for (BreakPeriod period : breaks) {
+                if (period == null || period.getStartTime() == null || period.getEndTime() == null) {
+                    continue;
+                }
+                breakList.add(new BreakPeriod(period.getStartTime(), period.getEndTime()));
+                int breakStart = period.getStartTime().toSecondOfDay();
+                int breakEnd = period.getEndTime().toSecondOfDay();
+                for (int i = 0; i < slotCount; i++) {
+                    int slotStart = startSecond + i * slotSeconds;
+                    if (slotStart < breakEnd && slotStart + slotSeconds > breakStart) {
+                        mask |= 1L << i;
+                    }
+                }
+            }
+        }
+        this.breaks = Collections.unmodifiableList(breakList);
+        this.breakMask = mask;
+        this.teachableMask = fullMask(slotCount) & ~mask;
+        
+        this.runStarts = new long[slotCount + 1];
+        if (slotCount > 0) {
+            runStarts[1] = teachableMask;
+            for (int k = 2; k <= slotCount; k++) {
+                runStarts[k] = runStarts[k - 1] & (teachableMask >>> (k - 1));
+            }
+        }
+    }
+    
+    private static long fullMask(int slots) {
+        return slots >= MAX_SLOTS ? -1L : (1L << slots) - 1;
+    }
+    
+    public LocalTime getDayStart() {
+        return dayStart;
+    }
+    
+    public LocalTime getDayEnd() {
+        return boundaries[slotCount];
+    }
+    
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+    
+    public int getSlotCount() {
+        return slotCount;
+    }
+    
+    public List<BreakPeriod> getBreaks() {
+        return breaks;
+    }
+    
+    public LocalTime getSlotStart(int slot) {
+        return boundaries[slot];
+    }
+    
+    public LocalTime getSlotEnd(int slot) {
+        return boundaries[slot + 1];
+    }
+    
+    /**
+     * Index of the slot boundary at {@code time}, or -1 if the time is not on a boundary of this schedule
+     */
+    public int slotIndexOf(LocalTime time) {
+        int offset = time.toSecondOfDay() - startSecond;
+        if (offset < 0 || offset % slotSeconds != 0) {
+            return -1;
+        }
+        int slot = offset / slotSeconds;
+        return slot <= slotCount ? slot : -1;
+    }
+    
+    /**
+     * First slot that starts at or after {@code time}
+     */
+    public int firstSlotStartingAtOrAfter(LocalTime time) {
+        int offset = time.toSecondOfDay() - startSecond;
+        if (offset <= 0) {
+            return 0;
+        }
+        return Math.min((offset + slotSeconds - 1) / slotSeconds, slotCount);
+    }
+    
+    /**
+     * Number of leading slots that end at or before {@code time}, i.e. the exclusive end slot index
+     */
+    public int slotsEndingBy(LocalTime time) {
+        int offset = time.toSecondOfDay() - startSecond;
+        if (offset <= 0) {
+            return 0;
+        }
+        return Math.min(offset / slotSeconds, slotCount);
+    }
+    
+    public long getBreakMask() {
+        return breakMask;
+    }
+    
+    public long getTeachableMask() {
+        return teachableMask;
+    }
+    
+    /**
+     * Bitmask of the slots where a lesson of {@code blocks} slots can start without touching a break
+     * or running past the end of the day. Precomputed for every length, including the usual
+     * 4-block (1 hour) and 6-block (1.5 hour) lessons.
+     */
+    public long getRunStarts(int blocks) {
+        if (blocks <= 0 || blocks > slotCount) {
+            return 0L;
+        }
+        return runStarts[blocks];
+    }
+    
+    public boolean canStart(int slot, int blocks) {
+        return slot >= 0 && slot < slotCount && ((getRunStarts(blocks) >>> slot) & 1L) != 0;
+    }
+}
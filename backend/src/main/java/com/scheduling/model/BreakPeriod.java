@@ -1,16 +1,28 @@
-package com.scheduling.service;
+package com.scheduling.model;
+
+import jakarta.persistence.Embeddable;
+import jakarta.validation.constraints.NotNull;
 
 import java.time.LocalTime;
 
-public class TimeSlot {
+@Embeddable
+public class BreakPeriod {
+    
+    @NotNull(message = "Break start time is required")
     private LocalTime startTime;
+    
+    @NotNull(message = "Break end time is required")
     private LocalTime endTime;
     
-    public TimeSlot(LocalTime startTime, LocalTime endTime) {
+    // Constructors
+    public BreakPeriod() {}
+    
+    public BreakPeriod(LocalTime startTime, LocalTime endTime) {
         this.startTime = startTime;
         this.endTime = endTime;
     }
     
+    // Getters and Setters
     public LocalTime getStartTime() {
         return startTime;
     }
@@ -27,4 +39,3 @@ public class TimeSlot {
         this.endTime = endTime;
     }
 }
-
@@ -6,11 +6,21 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "schedules")
+@Table(name = "schedules", indexes = {
+    // Overlap checks filter on the resource and date, then range-scan start_time
+    @Index(name = "idx_schedules_teacher_date", columnList = "teacher_id, date, start_time"),
+    @Index(name = "idx_schedules_classroom_date", columnList = "classroom_id, date, start_time"),
+    @Index(name = "idx_schedules_section_day", columnList = "section_id, day_of_week, start_time"),
+    @Index(name = "idx_schedules_school_year", columnList = "school_year_id"),
+    @Index(name = "idx_schedules_date_start", columnList = "date, start_time"),
+    // Keyset pages order and seek on (day_order, start_time, id)
+    @Index(name = "idx_schedules_day_start_id", columnList = "day_order, start_time, id")
+})
 public class Schedule {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "schedule_seq")
+    @SequenceGenerator(name = "schedule_seq", sequenceName = "schedule_seq", allocationSize = 50)
     private Long id;
     
     @NotNull(message = "Date is required")
@@ -26,6 +36,11 @@ public class Schedule {
     @Enumerated(EnumType.STRING)
     private DayOfWeek dayOfWeek;
     
+    // Ordinal of dayOfWeek, which is stored as a string; kept in step by setDayOfWeek so listings
+    // can sort Monday-first on a plain indexed column
+    @Column(name = "day_order", nullable = false)
+    private Integer dayOrder;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "teacher_id", nullable = false)
     private Teacher teacher;
@@ -64,7 +79,7 @@ public class Schedule {
         this.date = date;
         this.startTime = startTime;
         this.endTime = endTime;
-        this.dayOfWeek = dayOfWeek;
+        setDayOfWeek(dayOfWeek);
         this.teacher = teacher;
         this.classroom = classroom;
         this.section = section;
@@ -112,6 +127,7 @@ public class Schedule {
     
     public void setDayOfWeek(DayOfWeek dayOfWeek) {
         this.dayOfWeek = dayOfWeek;
+        this.dayOrder = dayOfWeek != null ? dayOfWeek.ordinal() : null;
     }
     
     public Teacher getTeacher() {
@@ -1,14 +1,20 @@
 package com.scheduling.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "school_years")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class SchoolYear {
     
     @Id
@@ -30,6 +36,21 @@ public class SchoolYear {
     
     private String description;
     
+    // Bell schedule; when left empty the default 8:00-16:30 day with 15-minute slots is used
+    private LocalTime dayStartTime;
+    
+    private LocalTime dayEndTime;
+    
+    private Integer slotMinutes;
+    
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "school_year_breaks", joinColumns = @JoinColumn(name = "school_year_id"))
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    private List<BreakPeriod> breakPeriods = new ArrayList<>();
+    
+    @Transient
+    private BellSchedule bellSchedule;
+    
     // @OneToMany(mappedBy = "schoolYear", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     // private List<Schedule> schedules = new ArrayList<>();
     
@@ -92,6 +113,62 @@ public class SchoolYear {
         this.description = description;
     }
     
+    public LocalTime getDayStartTime() {
+        return dayStartTime;
+    }
+    
+    public void setDayStartTime(LocalTime dayStartTime) {
+        this.dayStartTime = dayStartTime;
+        this.bellSchedule = null;
+    }
+    
+    public LocalTime getDayEndTime() {
+        return dayEndTime;
+    }
+    
+    public void setDayEndTime(LocalTime dayEndTime) {
+        this.dayEndTime = dayEndTime;
+        this.bellSchedule = null;
+    }
+    
+    public Integer getSlotMinutes() {
+        return slotMinutes;
+    }
+    
+    public void setSlotMinutes(Integer slotMinutes) {
+        this.slotMinutes = slotMinutes;
+        this.bellSchedule = null;
+    }
+    
+    public List<BreakPeriod> getBreakPeriods() {
+        return breakPeriods;
+    }
+    
+    public void setBreakPeriods(List<BreakPeriod> breakPeriods) {
+        this.breakPeriods = breakPeriods != null ? breakPeriods : new ArrayList<>();
+        this.bellSchedule = null;
+    }
+    
+    /**
+     * Bell schedule for this school year, built once from the configured day bounds and breaks
+     */
+    @JsonIgnore
+    public BellSchedule getBellSchedule() {
+        if (bellSchedule == null) {
+            if (dayStartTime == null && dayEndTime == null && slotMinutes == null && breakPeriods.isEmpty()) {
+                bellSchedule = BellSchedule.DEFAULT;
+            } else {
+                BellSchedule defaults = BellSchedule.DEFAULT;
+                bellSchedule = new BellSchedule(
+                    dayStartTime != null ? dayStartTime : defaults.getDayStart(),
+                    dayEndTime != null ? dayEndTime : defaults.getDayEnd(),
+                    slotMinutes != null ? slotMinutes : defaults.getSlotMinutes(),
+                    breakPeriods.isEmpty() ? defaults.getBreaks() : breakPeriods);
+            }
+        }
+        return bellSchedule;
+    }
+    
     // public List<Schedule> getSchedules() {
     //     return schedules;
     // }
@@ -27,6 +27,8 @@ public class Teacher {
     private String email;
     
     @ElementCollection
+    @CollectionTable(name = "teacher_subjects", joinColumns = @JoinColumn(name = "teacher_id"),
+                     indexes = @Index(name = "idx_teacher_subjects_subject", columnList = "subjects, teacher_id"))
     private Set<String> subjects;
     
     @NotNull(message = "Available start time is required")
@@ -1,8 +1,10 @@
 package com.scheduling.repository;
 
 import com.scheduling.model.Classroom;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,6 +14,11 @@ import java.util.Optional;
 @Repository
 public interface ClassroomRepository extends JpaRepository<Classroom, Long> {
     
+    // Redeclared so the full classroom list is served from the query cache until a classroom is written
+    @Override
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    List<Classroom> findAll();
+    
     Optional<Classroom> findByRoomName(String roomName);
     
     List<Classroom> findByRoomType(String roomType);
@@ -1,18 +1,25 @@
 package com.scheduling.repository;
 
+import com.scheduling.dto.ScheduleAggregate;
+import com.scheduling.dto.ScheduleRow;
 import com.scheduling.model.Classroom;
 import com.scheduling.model.DayOfWeek;
 import com.scheduling.model.Schedule;
 import com.scheduling.model.SchoolYear;
+import com.scheduling.model.Section;
 import com.scheduling.model.Teacher;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
@@ -27,24 +34,107 @@ public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
     
     List<Schedule> findBySchoolYear(SchoolYear schoolYear);
     
+    // Canonical overlap test (start < other end AND end > other start), so the (resource, date, start_time)
+    // and (section, day_of_week, start_time) indexes on schedules can serve it with a range scan
     @Query("SELECT s FROM Schedule s WHERE s.classroom = :classroom AND s.date = :date " +
-           "AND ((s.startTime <= :startTime AND s.endTime > :startTime) OR " +
-           "(s.startTime < :endTime AND s.endTime >= :endTime) OR " +
-           "(s.startTime >= :startTime AND s.endTime <= :endTime))")
+           "AND s.startTime < :endTime AND s.endTime > :startTime")
     List<Schedule> findConflictingClassroomSchedules(@Param("classroom") Classroom classroom,
                                                     @Param("date") LocalDate date,
                                                     @Param("startTime") LocalTime startTime,
                                                     @Param("endTime") LocalTime endTime);
     
     @Query("SELECT s FROM Schedule s WHERE s.teacher = :teacher AND s.date = :date " +
-           "AND ((s.startTime <= :startTime AND s.endTime > :startTime) OR " +
-           "(s.startTime < :endTime AND s.endTime >= :endTime) OR " +
-           "(s.startTime >= :startTime AND s.endTime <= :endTime))")
+           "AND s.startTime < :endTime AND s.endTime > :startTime")
     List<Schedule> findConflictingTeacherSchedules(@Param("teacher") Teacher teacher,
                                                   @Param("date") LocalDate date,
                                                   @Param("startTime") LocalTime startTime,
                                                   @Param("endTime") LocalTime endTime);
     
+    @Query("SELECT s FROM Schedule s WHERE s.section = :section AND s.dayOfWeek = :dayOfWeek " +
+           "AND s.startTime < :endTime AND s.endTime > :startTime")
+    List<Schedule> findConflictingSectionSchedules(@Param("section") Section section,
+                                                  @Param("dayOfWeek") DayOfWeek dayOfWeek,
+                                                  @Param("startTime") LocalTime startTime,
+                                                  @Param("endTime") LocalTime endTime);
+    
+    // Delta re-solve: the rows a change touches, then the other active rows sharing their resources
+    String ACTIVE = "(s.status IS NULL OR s.status <> com.scheduling.model.ScheduleStatus.CANCELLED) ";
+    
+    @Query("SELECT s FROM Schedule s WHERE " + ACTIVE +
+           "AND (s.teacher.id = :teacherId OR s.classroom.id = :classroomId " +
+           "OR s.section.id = :sectionId OR s.subject.id = :subjectId)")
+    List<Schedule> findActiveReferencing(@Param("teacherId") Long teacherId,
+                                         @Param("classroomId") Long classroomId,
+                                         @Param("sectionId") Long sectionId,
+                                         @Param("subjectId") Long subjectId);
+    
+    @Query("SELECT s FROM Schedule s WHERE " + ACTIVE +
+           "AND (s.teacher.id IN :teacherIds OR s.classroom.id IN :classroomIds OR s.section.id IN :sectionIds)")
+    List<Schedule> findActiveSharingResources(@Param("teacherIds") Collection<Long> teacherIds,
+                                              @Param("classroomIds") Collection<Long> classroomIds,
+                                              @Param("sectionIds") Collection<Long> sectionIds);
+    
+    String SCHEDULE_ROW_SELECT = "SELECT new com.scheduling.dto.ScheduleRow(" +
+        "s.id, s.date, s.dayOfWeek, s.startTime, s.endTime, s.status, s.isRecurring, s.durationIndex, " +
+        "t.id, t.firstName, t.lastName, c.id, c.roomName, sec.id, sec.sectionName, " +
+        "sub.id, sub.name, sub.code, sy.id) " +
+        "FROM Schedule s JOIN s.teacher t JOIN s.classroom c JOIN s.section sec JOIN s.subject sub " +
+        "LEFT JOIN s.schoolYear sy ";
+    
+    /**
+     * Every schedule as a flat row, in one joined statement
+     */
+    @Query(SCHEDULE_ROW_SELECT + "ORDER BY s.id")
+    List<ScheduleRow> findAllRows();
+    
+    @Query(SCHEDULE_ROW_SELECT + "WHERE sy.id = :schoolYearId ORDER BY s.id")
+    List<ScheduleRow> findRowsBySchoolYearId(@Param("schoolYearId") Long schoolYearId);
+    
+    @Query(SCHEDULE_ROW_SELECT + "WHERE s.id IN :ids")
+    List<ScheduleRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Streamed exports: rows are fetched in chunks of EXPORT_FETCH_SIZE and never held all at once.
+    // The caller must consume the stream inside a read-only transaction and close it.
+    String EXPORT_FETCH_SIZE = "500";
+    
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = EXPORT_FETCH_SIZE),
+                 @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query(SCHEDULE_ROW_SELECT + "ORDER BY s.id")
+    Stream<ScheduleRow> streamAllRows();
+    
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = EXPORT_FETCH_SIZE),
+                 @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query(SCHEDULE_ROW_SELECT + "WHERE sy.id = :schoolYearId ORDER BY s.id")
+    Stream<ScheduleRow> streamRowsBySchoolYearId(@Param("schoolYearId") Long schoolYearId);
+    
+    // Statistics: one GROUP BY per dimension over the date range, counting rows and summing minutes
+    String SCHEDULE_MINUTES = "(EXTRACT(HOUR FROM s.endTime) * 60 + EXTRACT(MINUTE FROM s.endTime) " +
+        "- EXTRACT(HOUR FROM s.startTime) * 60 - EXTRACT(MINUTE FROM s.startTime))";
+    
+    @Query("SELECT new com.scheduling.dto.ScheduleAggregate(sub.id, sub.name, COUNT(s), SUM(" + SCHEDULE_MINUTES + ")) " +
+           "FROM Schedule s JOIN s.subject sub WHERE s.date BETWEEN :startDate AND :endDate " +
+           "GROUP BY sub.id, sub.name ORDER BY sub.name")
+    List<ScheduleAggregate> aggregateBySubject(@Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT new com.scheduling.dto.ScheduleAggregate(t.id, t.firstName, t.lastName, COUNT(s), SUM(" + SCHEDULE_MINUTES + ")) " +
+           "FROM Schedule s JOIN s.teacher t WHERE s.date BETWEEN :startDate AND :endDate " +
+           "GROUP BY t.id, t.firstName, t.lastName ORDER BY t.lastName, t.firstName")
+    List<ScheduleAggregate> aggregateByTeacher(@Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT new com.scheduling.dto.ScheduleAggregate(c.id, c.roomName, COUNT(s), SUM(" + SCHEDULE_MINUTES + ")) " +
+           "FROM Schedule s JOIN s.classroom c WHERE s.date BETWEEN :startDate AND :endDate " +
+           "GROUP BY c.id, c.roomName ORDER BY c.roomName")
+    List<ScheduleAggregate> aggregateByClassroom(@Param("startDate") LocalDate startDate,
+                                                 @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT new com.scheduling.dto.ScheduleAggregate(s.dayOfWeek, COUNT(s), SUM(" + SCHEDULE_MINUTES + ")) " +
+           "FROM Schedule s WHERE s.date BETWEEN :startDate AND :endDate " +
+           "GROUP BY s.dayOfWeek")
+    List<ScheduleAggregate> aggregateByDay(@Param("startDate") LocalDate startDate,
+                                           @Param("endDate") LocalDate endDate);
+    
     @Query("SELECT s FROM Schedule s WHERE s.date BETWEEN :startDate AND :endDate " +
            "ORDER BY s.date, s.startTime")
     List<Schedule> findSchedulesBetweenDates(@Param("startDate") LocalDate startDate,
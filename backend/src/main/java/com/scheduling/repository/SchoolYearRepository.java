@@ -1,8 +1,10 @@
 package com.scheduling.repository;
 
 import com.scheduling.model.SchoolYear;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,8 +17,11 @@ public interface SchoolYearRepository extends JpaRepository<SchoolYear, Long> {
     
     Optional<SchoolYear> findByName(String name);
     
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<SchoolYear> findAllByOrderByNameDesc();
     
+    // Served from the query cache until a school year is written
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     @Query("SELECT sy FROM SchoolYear sy WHERE sy.isActive = true")
     Optional<SchoolYear> findActiveSchoolYear();
     
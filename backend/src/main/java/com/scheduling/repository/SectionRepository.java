@@ -1,9 +1,13 @@
 package com.scheduling.repository;
 
 import com.scheduling.model.Section;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,5 +15,11 @@ public interface SectionRepository extends JpaRepository<Section, Long> {
     
     Optional<Section> findBySectionName(String sectionName);
     
+    /**
+     * All sections with available days initialized, in one statement
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    @Query("SELECT s FROM Section s LEFT JOIN FETCH s.availableDays ORDER BY s.id")
+    List<Section> findAllWithAvailableDays();
 }
 
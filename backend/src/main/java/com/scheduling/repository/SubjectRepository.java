@@ -1,8 +1,10 @@
 package com.scheduling.repository;
 
 import com.scheduling.model.Subject;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -18,6 +20,8 @@ public interface SubjectRepository extends JpaRepository<Subject, Long> {
     
     List<Subject> findByRequiredRoomType(String roomType);
     
+    // Served from the query cache until a subject is written
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     @Query("SELECT s FROM Subject s ORDER BY s.priority DESC, s.name ASC")
     List<Subject> findAllOrderByPriority();
     
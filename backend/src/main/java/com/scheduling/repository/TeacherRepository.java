@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalTime;
 import java.util.List;
@@ -31,4 +32,22 @@ public interface TeacherRepository extends JpaRepository<Teacher, Long> {
     List<Teacher> findTeachersByAvailability(@Param("day") DayOfWeek day,
                                            @Param("startTime") LocalTime startTime, 
                                            @Param("endTime") LocalTime endTime);
+    
+    // Each loader fetch-joins one element collection; joining both in one statement would
+    // return subjects x days rows per teacher
+    @Query("SELECT t FROM Teacher t LEFT JOIN FETCH t.subjects ORDER BY t.id")
+    List<Teacher> findAllFetchSubjects();
+    
+    @Query("SELECT t FROM Teacher t LEFT JOIN FETCH t.availableDays ORDER BY t.id")
+    List<Teacher> findAllFetchAvailableDays();
+    
+    /**
+     * All teachers with subjects and available days initialized, in two statements.
+     * Both loaders run in one persistence context, so the second fills in the same instances.
+     */
+    @Transactional(readOnly = true)
+    default List<Teacher> findAllWithCollections() {
+        findAllFetchAvailableDays();
+        return findAllFetchSubjects();
+    }
 }
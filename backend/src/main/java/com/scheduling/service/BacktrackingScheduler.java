@@ -0,0 +1,693 @@
+package com.scheduling.service;
+
+import com.scheduling.model.BellSchedule;
+import com.scheduling.model.Classroom;
+import com.scheduling.model.DayOfWeek;
+import com.scheduling.model.Section;
+import com.scheduling.model.Teacher;
+import com.scheduling.service.SchedulingService.SchedulingRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Constraint satisfaction search over scheduling requests.
+ *
+ * Each request is a variable whose domain is the set of (day, start slot) pairs where its section,
+ * at least one qualified teacher and at least one suitable classroom are free for the whole block.
+ * Domains are counted per day from cached bitmasks, the most constrained request is placed first,
+ * and every placement is forward checked: if it would leave another placeable request without
+ * any option, the placement is undone and the next value is tried. The search backtracks until a
+ * node or time budget runs out and then finishes greedily, so it always terminates with the best
+ * assignment it has built.
+ */
+public class BacktrackingScheduler {
+    
+    private static final int DAYS = OccupancyGrid.DAYS;
+    private static final DayOfWeek[] WEEK = DayOfWeek.values();
+    
+    private static final byte UNASSIGNED = 0;
+    private static final byte PLACED = 1;
+    private static final byte SKIPPED = 2;
+    
+    private final List<SchedulingRequest> requests;
+    private final BellSchedule bellSchedule;
+    private final OccupancyGrid occupancy;
+    private final long dayMask;
+    
+    // Per-request data
+    private final int requestCount;
+    private final int[] sectionOf;
+    private final int[] subjectOf;
+    private final int[] blocksOf;
+    private final int[] priorityOf;
+    private final int[] teacherGroupOf;
+    private final int[] roomGroupOf;
+    private final int[][] daysOf;
+    
+    // Candidate groups: requests for the same subject share a teacher group, requests with the
+    // same room type and capacity share a classroom group
+    private final int[][] teacherGroups;
+    private final int[][] roomGroups;
+    private final int[][] groupsOfTeacher;
+    private final int[][] groupsOfRoom;
+    private final TeacherAvailability teacherAvailability;
+    
+    // Inverted lists used by forward checking
+    private final int[][] requestsBySection;
+    private final int[][] requestsByTeacherGroup;
+    private final int[][] requestsByRoomGroup;
+    
+    // Cached union of start masks per (group, day, blocks), invalidated by bumping the version
+    private final int maxBlocks;
+    private final long[] teacherGroupStarts;
+    private final int[] teacherGroupStamp;
+    private final int[] teacherGroupVersion;
+    private final long[] roomGroupStarts;
+    private final int[] roomGroupStamp;
+    private final int[] roomGroupVersion;
+    
+    // Section-day subject usage, [(section * DAYS + day) * subjectCount + subject]
+    private final int subjectCount;
+    private final boolean[] sectionDaySubject;
+    
+    // Search state
+    private final byte[] status;
+    private final int[] dayCount;   // [request * DAYS + day] number of feasible starts
+    private final int[] domainSize;
+    private final int[] assignedDay;
+    private final int[] assignedStart;
+    private final int[] assignedTeacher;
+    private final int[] assignedRoom;
+    
+    private int[] trailRequest = new int[1024];
+    private int[] trailDay = new int[1024];
+    private int[] trailCount = new int[1024];
+    private int trailSize;
+    
+    private final int[] visitStamp;
+    private int visitEpoch;
+    
+    private long maxNodes;
+    private long deadline;
+    private BooleanSupplier cancellation = () -> false;
+    private long nodes;
+    private long backtracks;
+    private boolean budgetExhausted;
+    private long elapsedMillis;
+    
+    public BacktrackingScheduler(List<SchedulingRequest> requests, List<Teacher> teachers,
+                                 List<Classroom> classrooms, BellSchedule bellSchedule) {
+        this.requests = requests;
+        this.bellSchedule = bellSchedule;
+        this.requestCount = requests.size();
+        this.dayMask = OccupancyGrid.blockMask(0, bellSchedule.getSlotCount());
+        
+        Set<Section> sections = new LinkedHashSet<>();
+        for (SchedulingRequest request : requests) {
+            sections.add(request.getSection());
+        }
+        this.occupancy = new OccupancyGrid(teachers, classrooms, sections);
+        
+        this.sectionOf = new int[requestCount];
+        this.subjectOf = new int[requestCount];
+        this.blocksOf = new int[requestCount];
+        this.priorityOf = new int[requestCount];
+        this.teacherGroupOf = new int[requestCount];
+        this.roomGroupOf = new int[requestCount];
+        this.daysOf = new int[requestCount][];
+        
+        Map<String, Integer> subjectIndex = new HashMap<>();
+        Map<String, Integer> roomGroupIndex = new HashMap<>();
+        List<int[]> teacherGroupList = new ArrayList<>();
+        List<int[]> roomGroupList = new ArrayList<>();
+        int largestBlock = 1;
+        
+        for (int i = 0; i < requestCount; i++) {
+            SchedulingRequest request = requests.get(i);
+            String subjectName = request.getSubject().getName();
+            
+            sectionOf[i] = occupancy.sectionIndex(request.getSection());
+            blocksOf[i] = request.getConsecutiveHours();
+            priorityOf[i] = request.getPriority();
+            largestBlock = Math.max(largestBlock, blocksOf[i]);
+            
+            Integer subject = subjectIndex.get(subjectName);
+            if (subject == null) {
+                subject = subjectIndex.size();
+                subjectIndex.put(subjectName, subject);
+                List<Integer> members = new ArrayList<>();
+                for (int t = 0; t < teachers.size(); t++) {
+                    Set<String> subjects = teachers.get(t).getSubjects();
+                    if (subjects != null && subjects.contains(subjectName)) {
+                        members.add(t);
+                    }
+                }
+                teacherGroupList.add(members.stream().mapToInt(Integer::intValue).toArray());
+            }
+            subjectOf[i] = subject;
+            teacherGroupOf[i] = subject;
+            
+            String roomKey = request.getRoomType() + "|" + request.getRequiredCapacity();
+            Integer roomGroup = roomGroupIndex.get(roomKey);
+            if (roomGroup == null) {
+                roomGroup = roomGroupIndex.size();
+                roomGroupIndex.put(roomKey, roomGroup);
+                List<Integer> members = new ArrayList<>();
+                for (int r = 0; r < classrooms.size(); r++) {
+                    Classroom classroom = classrooms.get(r);
+                    if (classroom.getCapacity() >= request.getRequiredCapacity() &&
+                        (classroom.getRoomType().equals(request.getRoomType()) || request.getRoomType().equals("Any"))) {
+                        members.add(r);
+                    }
+                }
+                roomGroupList.add(members.stream().mapToInt(Integer::intValue).toArray());
+            }
+            roomGroupOf[i] = roomGroup;
+            
+            daysOf[i] = SchedulingService.getAvailableDaysForSection(request.getSection()).stream()
+                .mapToInt(DayOfWeek::ordinal)
+                .toArray();
+        }
+        
+        this.subjectCount = Math.max(1, subjectIndex.size());
+        this.maxBlocks = largestBlock;
+        this.teacherGroups = teacherGroupList.toArray(new int[0][]);
+        this.roomGroups = roomGroupList.toArray(new int[0][]);
+        this.groupsOfTeacher = invert(teacherGroups, teachers.size());
+        this.groupsOfRoom = invert(roomGroups, classrooms.size());
+        
+        this.teacherAvailability = new TeacherAvailability(teachers, bellSchedule);
+        
+        int sectionCount = sections.size();
+        this.requestsBySection = groupRequests(sectionOf, sectionCount);
+        this.requestsByTeacherGroup = groupRequests(teacherGroupOf, teacherGroups.length);
+        this.requestsByRoomGroup = groupRequests(roomGroupOf, roomGroups.length);
+        
+        this.teacherGroupStarts = new long[teacherGroups.length * DAYS * (maxBlocks + 1)];
+        this.teacherGroupStamp = new int[teacherGroupStarts.length];
+        this.teacherGroupVersion = new int[teacherGroups.length * DAYS];
+        this.roomGroupStarts = new long[roomGroups.length * DAYS * (maxBlocks + 1)];
+        this.roomGroupStamp = new int[roomGroupStarts.length];
+        this.roomGroupVersion = new int[roomGroups.length * DAYS];
+        // Stamps start at 0 and versions at 1, so every cache entry starts out stale
+        java.util.Arrays.fill(teacherGroupVersion, 1);
+        java.util.Arrays.fill(roomGroupVersion, 1);
+        
+        this.sectionDaySubject = new boolean[sectionCount * DAYS * subjectCount];
+        
+        this.status = new byte[requestCount];
+        this.dayCount = new int[requestCount * DAYS];
+        this.domainSize = new int[requestCount];
+        this.assignedDay = new int[requestCount];
+        this.assignedStart = new int[requestCount];
+        this.assignedTeacher = new int[requestCount];
+        this.assignedRoom = new int[requestCount];
+        this.visitStamp = new int[requestCount];
+    }
+    
+    private static int[][] invert(int[][] groups, int memberCount) {
+        List<List<Integer>> inverse = new ArrayList<>();
+        for (int m = 0; m < memberCount; m++) {
+            inverse.add(new ArrayList<>());
+        }
+        for (int g = 0; g < groups.length; g++) {
+            for (int member : groups[g]) {
+                inverse.get(member).add(g);
+            }
+        }
+        int[][] result = new int[memberCount][];
+        for (int m = 0; m < memberCount; m++) {
+            result[m] = inverse.get(m).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return result;
+    }
+    
+    private static int[][] groupRequests(int[] keyOf, int keyCount) {
+        int[] sizes = new int[keyCount];
+        for (int key : keyOf) {
+            sizes[key]++;
+        }
+        int[][] result = new int[keyCount][];
+        for (int k = 0; k < keyCount; k++) {
+            result[k] = new int[sizes[k]];
+            sizes[k] = 0;
+        }
+        for (int i = 0; i < keyOf.length; i++) {
+            result[keyOf[i]][sizes[keyOf[i]]++] = i;
+        }
+        return result;
+    }
+    
+    /**
+     * Starts of runs of at least {@code blocks} consecutive free slots
+     */
+    private static long runStarts(long free, int blocks) {
+        long starts = free;
+        for (int i = 1; i < blocks; i++) {
+            starts &= free >>> i;
+        }
+        return starts;
+    }
+    
+    // ---------------------------------------------------------------------------------------
+    // Domain computation
+    // ---------------------------------------------------------------------------------------
+    
+    private long teacherGroupStarts(int group, int day, int blocks) {
+        int slot = group * DAYS + day;
+        int entry = slot * (maxBlocks + 1) + blocks;
+        if (teacherGroupStamp[entry] != teacherGroupVersion[slot]) {
+            long starts = 0L;
+            DayOfWeek dayOfWeek = WEEK[day];
+            for (int teacher : teacherGroups[group]) {
+                long free = teacherAvailability.mask(teacher, dayOfWeek) & ~occupancy.getTeacherSlots(teacher, dayOfWeek);
+                starts |= runStarts(free, blocks);
+            }
+            teacherGroupStarts[entry] = starts;
+            teacherGroupStamp[entry] = teacherGroupVersion[slot];
+        }
+        return teacherGroupStarts[entry];
+    }
+    
+    private long roomGroupStarts(int group, int day, int blocks) {
+        int slot = group * DAYS + day;
+        int entry = slot * (maxBlocks + 1) + blocks;
+        if (roomGroupStamp[entry] != roomGroupVersion[slot]) {
+            long starts = 0L;
+            DayOfWeek dayOfWeek = WEEK[day];
+            for (int room : roomGroups[group]) {
+                starts |= runStarts(dayMask & ~occupancy.getClassroomSlots(room, dayOfWeek), blocks);
+            }
+            roomGroupStarts[entry] = starts;
+            roomGroupStamp[entry] = roomGroupVersion[slot];
+        }
+        return roomGroupStarts[entry];
+    }
+    
+    /**
+     * Start slots on {@code day} where request {@code i} fits for its section, some teacher and some room
+     */
+    private long feasibleStarts(int i, int day) {
+        int section = sectionOf[i];
+        if (sectionDaySubject[(section * DAYS + day) * subjectCount + subjectOf[i]]) {
+            return 0L;
+        }
+        int blocks = blocksOf[i];
+        long starts = bellSchedule.getRunStarts(blocks);
+        if (starts == 0L) {
+            return 0L;
+        }
+        starts &= runStarts(dayMask & ~occupancy.getSectionSlots(section, WEEK[day]), blocks);
+        if (starts == 0L) {
+            return 0L;
+        }
+        starts &= teacherGroupStarts(teacherGroupOf[i], day, blocks);
+        if (starts == 0L) {
+            return 0L;
+        }
+        return starts & roomGroupStarts(roomGroupOf[i], day, blocks);
+    }
+    
+    private void initializeDomains() {
+        for (int i = 0; i < requestCount; i++) {
+            int size = 0;
+            for (int day : daysOf[i]) {
+                int count = Long.bitCount(feasibleStarts(i, day));
+                dayCount[i * DAYS + day] = count;
+                size += count;
+            }
+            domainSize[i] = size;
+        }
+    }
+    
+    /**
+     * Recompute the day counts of unassigned requests touched by a change on {@code day}.
+     * Returns false when {@code forwardCheck} is set and a request that still had options lost all of them;
+     * every change made before that point is on the trail so the caller can undo it.
+     */
+    private boolean refreshNeighbours(int section, int teacher, int room, int day, boolean forwardCheck) {
+        visitEpoch++;
+        if (!refreshRequests(requestsBySection[section], day, forwardCheck)) {
+            return false;
+        }
+        for (int group : groupsOfTeacher[teacher]) {
+            if (!refreshRequests(requestsByTeacherGroup[group], day, forwardCheck)) {
+                return false;
+            }
+        }
+        for (int group : groupsOfRoom[room]) {
+            if (!refreshRequests(requestsByRoomGroup[group], day, forwardCheck)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private boolean refreshRequests(int[] candidates, int day, boolean forwardCheck) {
+        for (int i : candidates) {
+            if (status[i] != UNASSIGNED || visitStamp[i] == visitEpoch) {
+                continue;
+            }
+            visitStamp[i] = visitEpoch;
+            if (!allowsDay(i, day)) {
+                continue;
+            }
+            int cell = i * DAYS + day;
+            int count = Long.bitCount(feasibleStarts(i, day));
+            if (count == dayCount[cell]) {
+                continue;
+            }
+            pushTrail(i, day, dayCount[cell]);
+            int before = domainSize[i];
+            domainSize[i] += count - dayCount[cell];
+            dayCount[cell] = count;
+            if (forwardCheck && before > 0 && domainSize[i] == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private boolean allowsDay(int i, int day) {
+        for (int d : daysOf[i]) {
+            if (d == day) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void pushTrail(int request, int day, int count) {
+        if (trailSize == trailRequest.length) {
+            trailRequest = java.util.Arrays.copyOf(trailRequest, trailSize * 2);
+            trailDay = java.util.Arrays.copyOf(trailDay, trailSize * 2);
+            trailCount = java.util.Arrays.copyOf(trailCount, trailSize * 2);
+        }
+        trailRequest[trailSize] = request;
+        trailDay[trailSize] = day;
+        trailCount[trailSize] = count;
+        trailSize++;
+    }
+    
+    private void undoTrail(int mark) {
+        while (trailSize > mark) {
+            trailSize--;
+            int i = trailRequest[trailSize];
+            int cell = i * DAYS + trailDay[trailSize];
+            domainSize[i] += trailCount[trailSize] - dayCount[cell];
+            dayCount[cell] = trailCount[trailSize];
+        }
+    }
+    
+    // ---------------------------------------------------------------------------------------
+    // Placement
+    // ---------------------------------------------------------------------------------------
+    
+    private void invalidate(int teacher, int room, int day) {
+        for (int group : groupsOfTeacher[teacher]) {
+            teacherGroupVersion[group * DAYS + day]++;
+        }
+        for (int group : groupsOfRoom[room]) {
+            roomGroupVersion[group * DAYS + day]++;
+        }
+    }
+    
+    private void place(int i, int day, int start, int teacher, int room) {
+        DayOfWeek dayOfWeek = WEEK[day];
+        occupancy.occupy(teacher, room, sectionOf[i], dayOfWeek, OccupancyGrid.blockMask(start, blocksOf[i]));
+        sectionDaySubject[(sectionOf[i] * DAYS + day) * subjectCount + subjectOf[i]] = true;
+        invalidate(teacher, room, day);
+        status[i] = PLACED;
+        assignedDay[i] = day;
+        assignedStart[i] = start;
+        assignedTeacher[i] = teacher;
+        assignedRoom[i] = room;
+    }
+    
+    private void unplace(int i, int trailMark) {
+        int day = assignedDay[i];
+        DayOfWeek dayOfWeek = WEEK[day];
+        occupancy.release(assignedTeacher[i], assignedRoom[i], sectionOf[i], dayOfWeek,
+                          OccupancyGrid.blockMask(assignedStart[i], blocksOf[i]));
+        sectionDaySubject[(sectionOf[i] * DAYS + day) * subjectCount + subjectOf[i]] = false;
+        invalidate(assignedTeacher[i], assignedRoom[i], day);
+        status[i] = UNASSIGNED;
+        undoTrail(trailMark);
+    }
+    
+    /**
+     * Most constrained unassigned request; ties go to longer blocks, then higher priority, then input order
+     */
+    private int selectVariable() {
+        int best = -1;
+        for (int i = 0; i < requestCount; i++) {
+            if (status[i] != UNASSIGNED) {
+                continue;
+            }
+            if (best < 0 || domainSize[i] < domainSize[best] ||
+                (domainSize[i] == domainSize[best] &&
+                 (blocksOf[i] > blocksOf[best] ||
+                  (blocksOf[i] == blocksOf[best] && priorityOf[i] > priorityOf[best])))) {
+                best = i;
+            }
+        }
+        return best;
+    }
+    
+    // ---------------------------------------------------------------------------------------
+    // Search
+    // ---------------------------------------------------------------------------------------
+    
+    // Per-depth frame: chosen request, value cursor and the trail position before its placement
+    private int[] frameRequest;
+    private int[] frameDay;
+    private int[] frameStart;
+    private int[] frameTeacher;
+    private int[] frameRoom;
+    private int[] frameTrail;
+    
+    /**
+     * Try the next value of the frame at {@code depth}, resuming after its current cursor.
+     * With {@code forwardCheck} set, values that wipe out another request's domain are rejected.
+     */
+    private boolean advance(int depth, boolean forwardCheck) {
+        int i = frameRequest[depth];
+        int blocks = blocksOf[i];
+        int[] days = daysOf[i];
+        int[] teachers = teacherGroups[teacherGroupOf[i]];
+        int[] rooms = roomGroups[roomGroupOf[i]];
+        
+        int d = frameDay[depth];
+        int start = frameStart[depth];
+        int t = frameTeacher[depth];
+        int r = frameRoom[depth] + 1;
+        
+        for (; d < days.length; d++, start = -1, t = 0, r = 0) {
+            int day = days[d];
+            DayOfWeek dayOfWeek = WEEK[day];
+            long starts = feasibleStarts(i, day);
+            if (start >= 0) {
+                starts &= -1L << start; // resume at the current start
+            }
+            for (; starts != 0; starts &= starts - 1, t = 0, r = 0) {
+                start = Long.numberOfTrailingZeros(starts);
+                long mask = OccupancyGrid.blockMask(start, blocks);
+                for (; t < teachers.length; t++, r = 0) {
+                    int teacher = teachers[t];
+                    if (!teacherAvailability.isAvailable(teacher, dayOfWeek, mask) ||
+                        !occupancy.isTeacherFree(teacher, dayOfWeek, mask)) {
+                        continue;
+                    }
+                    for (; r < rooms.length; r++) {
+                        int room = rooms[r];
+                        if (!occupancy.isClassroomFree(room, dayOfWeek, mask)) {
+                            continue;
+                        }
+                        nodes++;
+                        int mark = trailSize;
+                        place(i, day, start, teacher, room);
+                        if (refreshNeighbours(sectionOf[i], teacher, room, day, forwardCheck)) {
+                            frameDay[depth] = d;
+                            frameStart[depth] = start;
+                            frameTeacher[depth] = t;
+                            frameRoom[depth] = r;
+                            frameTrail[depth] = mark;
+                            return true;
+                        }
+                        unplace(i, mark);
+                    }
+                }
+            }
+        }
+        return false;
+    }
+    
+    private void resetFrame(int depth, int request) {
+        frameRequest[depth] = request;
+        frameDay[depth] = 0;
+        frameStart[depth] = -1;
+        frameTeacher[depth] = 0;
+        frameRoom[depth] = -1;
+    }
+    
+    /**
+     * Treat the budget as exhausted as soon as {@code cancellation} returns true
+     */
+    public void setCancellation(BooleanSupplier cancellation) {
+        this.cancellation = cancellation;
+    }
+    
+    /**
+     * Run the search. Backtracking stops after {@code maxNodes} placements or {@code timeBudgetMillis},
+     * after which the remaining requests are completed greedily without revisiting earlier choices.
+     */
+    public void solve(long maxNodes, long timeBudgetMillis) {
+        long startedAt = System.nanoTime();
+        this.maxNodes = maxNodes;
+        this.deadline = startedAt + timeBudgetMillis * 1_000_000L;
+        
+        frameRequest = new int[requestCount];
+        frameDay = new int[requestCount];
+        frameStart = new int[requestCount];
+        frameTeacher = new int[requestCount];
+        frameRoom = new int[requestCount];
+        frameTrail = new int[requestCount];
+        
+        initializeDomains();
+        
+        int depth = 0;
+        while (depth < requestCount) {
+            checkBudget();
+            
+            int i = selectVariable();
+            resetFrame(depth, i);
+            
+            if (domainSize[i] == 0) {
+                // Nothing can host this request in the current state
+                status[i] = SKIPPED;
+                depth++;
+                continue;
+            }
+            
+            if (advance(depth, true)) {
+                depth++;
+                continue;
+            }
+            
+            if (budgetExhausted) {
+                // No forward-checked value left and no budget to backtrack: take any feasible value
+                resetFrame(depth, i);
+                if (!advance(depth, false)) {
+                    status[i] = SKIPPED;
+                }
+                depth++;
+                continue;
+            }
+            
+            // Backtrack to the most recent placement that still has untried values
+            status[i] = UNASSIGNED;
+            depth = backtrack(depth - 1);
+            if (depth < 0) {
+                // Every ordering was refuted; finish greedily from scratch
+                budgetExhausted = true;
+                depth = 0;
+            }
+        }
+        
+        elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000L;
+    }
+    
+    private boolean checkBudget() {
+        if (!budgetExhausted && (nodes >= maxNodes || System.nanoTime() > deadline || cancellation.getAsBoolean())) {
+            budgetExhausted = true;
+        }
+        return budgetExhausted;
+    }
+    
+    /**
+     * Undo frames from {@code depth} downwards until one can move to another value.
+     * Returns the depth to continue from, or -1 if the search space is exhausted.
+     */
+    private int backtrack(int depth) {
+        while (depth >= 0) {
+            if (checkBudget()) {
+                // Keep what is placed and let the caller finish greedily
+                return depth + 1;
+            }
+            backtracks++;
+            int i = frameRequest[depth];
+            if (status[i] == SKIPPED) {
+                status[i] = UNASSIGNED;
+                depth--;
+                continue;
+            }
+            unplace(i, frameTrail[depth]);
+            if (advance(depth, true)) {
+                return depth + 1;
+            }
+            status[i] = UNASSIGNED;
+            depth--;
+        }
+        return -1;
+    }
+    
+    // ---------------------------------------------------------------------------------------
+    // Results
+    // ---------------------------------------------------------------------------------------
+    
+    public boolean isPlaced(int request) {
+        return status[request] == PLACED;
+    }
+    
+    public int getPlacedCount() {
+        int placed = 0;
+        for (byte s : status) {
+            if (s == PLACED) {
+                placed++;
+            }
+        }
+        return placed;
+    }
+    
+    public DayOfWeek getDay(int request) {
+        return WEEK[assignedDay[request]];
+    }
+    
+    public int getStartSlot(int request) {
+        return assignedStart[request];
+    }
+    
+    public int getTeacherIndex(int request) {
+        return assignedTeacher[request];
+    }
+    
+    public int getClassroomIndex(int request) {
+        return assignedRoom[request];
+    }
+    
+    public SchedulingRequest getRequest(int request) {
+        return requests.get(request);
+    }
+    
+    public long getNodes() {
+        return nodes;
+    }
+    
+    public long getBacktracks() {
+        return backtracks;
+    }
+    
+    public boolean isBudgetExhausted() {
+        return budgetExhausted;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
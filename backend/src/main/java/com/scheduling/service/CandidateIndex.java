@@ -0,0 +1,155 @@
+package com.scheduling.service;
+
+import com.scheduling.model.BellSchedule;
+import com.scheduling.model.Classroom;
+import com.scheduling.model.DayOfWeek;
+import com.scheduling.model.Teacher;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Teachers by subject and classrooms by room type, plus teacher availability masks, built once per solve.
+ * Teachers are numbered by their position in the teacher list; each subject maps to a bitset of
+ * the qualified teachers. Classrooms of a type are sorted by capacity, so the rooms big enough
+ * for a section are a suffix found by binary search. Lookups return shared arrays and never
+ * allocate; callers must not modify them.
+ */
+public class CandidateIndex {
+    
+    private static final String ANY_ROOM_TYPE = "Any";
+    private static final long[] NO_TEACHERS = new long[0];
+    private static final RoomGroup NO_ROOMS = new RoomGroup(new ArrayList<>(), null);
+    
+    private final Teacher[] teachers;
+    private final int[] teacherGridIndexes;
+    private final TeacherAvailability availability;
+    
+    // Teacher qualifications are stored as subject names, so that is the key
+    private final Map<String, long[]> teachersBySubject = new HashMap<>();
+    private final Map<String, RoomGroup> roomsByType = new HashMap<>();
+    private final RoomGroup allRooms;
+    
+    public CandidateIndex(List<Teacher> teachers, List<Classroom> classrooms, BellSchedule bellSchedule,
+                          OccupancyGrid occupancy) {
+        int words = (teachers.size() + Long.SIZE - 1) / Long.SIZE;
+        this.teachers = teachers.toArray(new Teacher[0]);
+        this.teacherGridIndexes = new int[teachers.size()];
+        this.availability = new TeacherAvailability(teachers, bellSchedule);
+        
+        for (int t = 0; t < teachers.size(); t++) {
+            Teacher teacher = teachers.get(t);
+            teacherGridIndexes[t] = occupancy.teacherIndex(teacher);
+            
+            if (teacher.getSubjects() != null) {
+                for (String subject : teacher.getSubjects()) {
+                    teachersBySubject.computeIfAbsent(subject, key -> new long[words])[t / Long.SIZE] |= 1L << t;
+                }
+            }
+        }
+        
+        Map<String, List<Classroom>> classroomsByType = new HashMap<>();
+        for (Classroom classroom : classrooms) {
+            classroomsByType.computeIfAbsent(classroom.getRoomType(), key -> new ArrayList<>()).add(classroom);
+        }
+        for (Map.Entry<String, List<Classroom>> entry : classroomsByType.entrySet()) {
+            roomsByType.put(entry.getKey(), new RoomGroup(entry.getValue(), occupancy));
+        }
+        this.allRooms = new RoomGroup(classrooms, occupancy);
+    }
+    
+    /**
+     * Bitset of the teachers qualified for {@code subjectName}; bit t is teacher t of the list
+     */
+    public long[] teachersFor(String subjectName) {
+        return teachersBySubject.getOrDefault(subjectName, NO_TEACHERS);
+    }
+    
+    public static boolean isEmpty(long[] teacherBits) {
+        for (long word : teacherBits) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Classrooms of {@code roomType} ordered by capacity; "Any" returns every classroom
+     */
+    public RoomGroup roomsFor(String roomType) {
+        if (ANY_ROOM_TYPE.equals(roomType)) {
+            return allRooms;
+        }
+        return roomsByType.getOrDefault(roomType, NO_ROOMS);
+    }
+    
+    public Teacher teacher(int t) {
+        return teachers[t];
+    }
+    
+    public int teacherGridIndex(int t) {
+        return teacherGridIndexes[t];
+    }
+    
+    /**
+     * Whether teacher t is available for every slot of {@code blockMask} on {@code day}
+     */
+    public boolean isTeacherAvailable(int t, DayOfWeek day, long blockMask) {
+        return availability.isAvailable(t, day, blockMask);
+    }
+    
+    public TeacherAvailability getAvailability() {
+        return availability;
+    }
+    
+    public static class RoomGroup {
+        private final Classroom[] classrooms;
+        private final int[] capacities;
+        private final int[] gridIndexes;
+        
+        RoomGroup(List<Classroom> members, OccupancyGrid occupancy) {
+            List<Classroom> sorted = new ArrayList<>(members);
+            sorted.sort(Comparator.comparingInt(Classroom::getCapacity)); // stable, so list order breaks ties
+            this.classrooms = sorted.toArray(new Classroom[0]);
+            this.capacities = new int[classrooms.length];
+            this.gridIndexes = new int[classrooms.length];
+            for (int c = 0; c < classrooms.length; c++) {
+                capacities[c] = classrooms[c].getCapacity();
+                gridIndexes[c] = occupancy.classroomIndex(classrooms[c]);
+            }
+        }
+        
+        /**
+         * Position of the smallest classroom holding at least {@code capacity}, or {@link #size()} if none does
+         */
+        public int firstWithCapacity(int capacity) {
+            int low = 0;
+            int high = capacities.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (capacities[mid] < capacity) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+        
+        public int size() {
+            return classrooms.length;
+        }
+        
+        public Classroom classroom(int c) {
+            return classrooms[c];
+        }
+        
+        public int gridIndex(int c) {
+            return gridIndexes[c];
+        }
+    }
+}
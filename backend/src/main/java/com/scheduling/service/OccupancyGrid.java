@@ -0,0 +1,127 @@
+package com.scheduling.service;
+
+import com.scheduling.model.Classroom;
+import com.scheduling.model.DayOfWeek;
+import com.scheduling.model.Section;
+import com.scheduling.model.Teacher;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dense occupancy state used by the scheduler.
+ * Keeps one bitmask per (teacher, day), (classroom, day) and (section, day), where bit i
+ * is set when 15-minute slot i of that day is taken. Checking whether a multi-block lesson
+ * fits is a single mask AND per resource and does not allocate.
+ */
+public class OccupancyGrid {
+    
+    public static final int DAYS = DayOfWeek.values().length;
+    public static final int MAX_SLOTS = Long.SIZE;
+    
+    private final Map<Long, Integer> teacherIndex;
+    private final Map<Long, Integer> classroomIndex;
+    private final Map<Long, Integer> sectionIndex;
+    
+    private final long[] teacherSlots;
+    private final long[] classroomSlots;
+    private final long[] sectionSlots;
+    
+    public OccupancyGrid(List<Teacher> teachers, List<Classroom> classrooms, Collection<Section> sections) {
+        this.teacherIndex = new HashMap<>();
+        for (int i = 0; i < teachers.size(); i++) {
+            teacherIndex.put(teachers.get(i).getId(), i);
+        }
+        this.classroomIndex = new HashMap<>();
+        for (int i = 0; i < classrooms.size(); i++) {
+            classroomIndex.put(classrooms.get(i).getId(), i);
+        }
+        this.sectionIndex = new HashMap<>();
+        for (Section section : sections) {
+            sectionIndex.putIfAbsent(section.getId(), sectionIndex.size());
+        }
+        
+        this.teacherSlots = new long[teacherIndex.size() * DAYS];
+        this.classroomSlots = new long[classroomIndex.size() * DAYS];
+        this.sectionSlots = new long[sectionIndex.size() * DAYS];
+    }
+    
+    /**
+     * Copy constructor. The index maps are shared (they are never modified after construction),
+     * the occupancy masks are private to the copy.
+     */
+    public OccupancyGrid(OccupancyGrid other) {
+        this.teacherIndex = other.teacherIndex;
+        this.classroomIndex = other.classroomIndex;
+        this.sectionIndex = other.sectionIndex;
+        this.teacherSlots = other.teacherSlots.clone();
+        this.classroomSlots = other.classroomSlots.clone();
+        this.sectionSlots = other.sectionSlots.clone();
+    }
+    
+    /**
+     * Mask covering {@code blocks} consecutive slots starting at {@code startSlot}
+     */
+    public static long blockMask(int startSlot, int blocks) {
+        long run = blocks >= MAX_SLOTS ? -1L : (1L << blocks) - 1;
+        return run << startSlot;
+    }
+    
+    public int teacherIndex(Teacher teacher) {
+        return teacherIndex.getOrDefault(teacher.getId(), -1);
+    }
+    
+    public int classroomIndex(Classroom classroom) {
+        return classroomIndex.getOrDefault(classroom.getId(), -1);
+    }
+    
+    public int sectionIndex(Section section) {
+        return sectionIndex.getOrDefault(section.getId(), -1);
+    }
+    
+    public boolean isTeacherFree(int teacher, DayOfWeek day, long mask) {
+        return (teacherSlots[teacher * DAYS + day.ordinal()] & mask) == 0;
+    }
+    
+    public boolean isClassroomFree(int classroom, DayOfWeek day, long mask) {
+        return (classroomSlots[classroom * DAYS + day.ordinal()] & mask) == 0;
+    }
+    
+    public boolean isSectionFree(int section, DayOfWeek day, long mask) {
+        return (sectionSlots[section * DAYS + day.ordinal()] & mask) == 0;
+    }
+    
+    public boolean isFree(int teacher, int classroom, int section, DayOfWeek day, long mask) {
+        return isTeacherFree(teacher, day, mask)
+            && isClassroomFree(classroom, day, mask)
+            && isSectionFree(section, day, mask);
+    }
+    
+    public void occupy(int teacher, int classroom, int section, DayOfWeek day, long mask) {
+        int d = day.ordinal();
+        teacherSlots[teacher * DAYS + d] |= mask;
+        classroomSlots[classroom * DAYS + d] |= mask;
+        sectionSlots[section * DAYS + d] |= mask;
+    }
+    
+    public void release(int teacher, int classroom, int section, DayOfWeek day, long mask) {
+        int d = day.ordinal();
+        teacherSlots[teacher * DAYS + d] &= ~mask;
+        classroomSlots[classroom * DAYS + d] &= ~mask;
+        sectionSlots[section * DAYS + d] &= ~mask;
+    }
+    
+    public long getTeacherSlots(int teacher, DayOfWeek day) {
+        return teacherSlots[teacher * DAYS + day.ordinal()];
+    }
+    
+    public long getClassroomSlots(int classroom, DayOfWeek day) {
+        return classroomSlots[classroom * DAYS + day.ordinal()];
+    }
+    
+    public long getSectionSlots(int section, DayOfWeek day) {
+        return sectionSlots[section * DAYS + day.ordinal()];
+    }
+}
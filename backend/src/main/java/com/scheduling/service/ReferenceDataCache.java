@@ -0,0 +1,101 @@
+package com.scheduling.service;
+
+import com.scheduling.model.BellSchedule;
+import com.scheduling.model.Classroom;
+import com.scheduling.model.SchoolYear;
+import com.scheduling.model.Section;
+import com.scheduling.model.Subject;
+import com.scheduling.model.Teacher;
+import com.scheduling.repository.ClassroomRepository;
+import com.scheduling.repository.SchoolYearRepository;
+import com.scheduling.repository.SectionRepository;
+import com.scheduling.repository.SubjectRepository;
+import com.scheduling.repository.TeacherRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the solver's reference data as a {@link ReferenceDataSnapshot}, so repeated solves and
+ * reschedules do not reload sections, subjects, teachers and classrooms. The controllers that
+ * write this data call {@link #invalidate()}, which bumps the version; the next {@link #current()}
+ * call loads a new snapshot.
+ */
+@Service
+public class ReferenceDataCache {
+    
+    @Autowired
+    private SectionRepository sectionRepository;
+    
+    @Autowired
+    private SubjectRepository subjectRepository;
+    
+    @Autowired
+    private TeacherRepository teacherRepository;
+    
+    @Autowired
+    private ClassroomRepository classroomRepository;
+    
+    @Autowired
+    private SchoolYearRepository schoolYearRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private final AtomicLong version = new AtomicLong();
+    private volatile ReferenceDataSnapshot snapshot;
+    
+    /**
+     * The snapshot for the current version, loading it if reference data changed since the last call
+     */
+    public ReferenceDataSnapshot current() {
+        ReferenceDataSnapshot cached = snapshot;
+        if (cached != null && cached.getVersion() == version.get()) {
+            return cached;
+        }
+        synchronized (this) {
+            long loadVersion = version.get();
+            cached = snapshot;
+            if (cached != null && cached.getVersion() == loadVersion) {
+                return cached;
+            }
+            ReferenceDataSnapshot loaded = load(loadVersion);
+            // If a write invalidated the version while loading, still use what was read but do not keep it
+            if (version.get() == loadVersion) {
+                snapshot = loaded;
+            }
+            return loaded;
+        }
+    }
+    
+    /**
+     * Called after sections, subjects, teachers, classrooms or school years are written
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+    
+    public long getVersion() {
+        return version.get();
+    }
+    
+    private ReferenceDataSnapshot load(long loadVersion) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> {
+            // Fetch-joined loaders, so the solver never triggers lazy collection loads
+            List<Section> sections = sectionRepository.findAllWithAvailableDays();
+            List<Subject> subjects = subjectRepository.findAllOrderByPriority();
+            List<Teacher> teachers = teacherRepository.findAllWithCollections();
+            List<Classroom> classrooms = classroomRepository.findAll();
+            BellSchedule bellSchedule = schoolYearRepository.findActiveSchoolYear()
+                .map(SchoolYear::getBellSchedule)
+                .orElse(BellSchedule.DEFAULT);
+            return new ReferenceDataSnapshot(loadVersion, sections, subjects, teachers, classrooms, bellSchedule);
+        });
+    }
+}
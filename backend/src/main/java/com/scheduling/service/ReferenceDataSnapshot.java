@@ -0,0 +1,59 @@
+package com.scheduling.service;
+
+import com.scheduling.model.BellSchedule;
+import com.scheduling.model.Classroom;
+import com.scheduling.model.Section;
+import com.scheduling.model.Subject;
+import com.scheduling.model.Teacher;
+
+import java.util.List;
+
+/**
+ * The solver's reference data (sections, subjects by priority, teachers, classrooms and the
+ * active bell schedule) as loaded at one version of {@link ReferenceDataCache}.
+ * The lists are unmodifiable and the entities are detached with their collections initialized;
+ * solver code only reads them.
+ */
+public class ReferenceDataSnapshot {
+    
+    private final long version;
+    private final List<Section> sections;
+    private final List<Subject> subjects;
+    private final List<Teacher> teachers;
+    private final List<Classroom> classrooms;
+    private final BellSchedule bellSchedule;
+    
+    public ReferenceDataSnapshot(long version, List<Section> sections, List<Subject> subjects,
+                                 List<Teacher> teachers, List<Classroom> classrooms, BellSchedule bellSchedule) {
+        this.version = version;
+        this.sections = List.copyOf(sections);
+        this.subjects = List.copyOf(subjects);
+        this.teachers = List.copyOf(teachers);
+        this.classrooms = List.copyOf(classrooms);
+        this.bellSchedule = bellSchedule;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public List<Section> getSections() {
+        return sections;
+    }
+    
+    public List<Subject> getSubjects() {
+        return subjects;
+    }
+    
+    public List<Teacher> getTeachers() {
+        return teachers;
+    }
+    
+    public List<Classroom> getClassrooms() {
+        return classrooms;
+    }
+    
+    public BellSchedule getBellSchedule() {
+        return bellSchedule;
+    }
+}
@@ -0,0 +1,103 @@
+package com.scheduling.service;
+
+import com.scheduling.model.Schedule;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk write path for generated schedules.
+ * All rows of a generation are inserted in one transaction; the persistence context is flushed
+ * every JDBC batch so Hibernate sends grouped INSERTs (ids come from the pooled schedule
+ * sequence), and the flushed rows are detached so it does not dirty-check an ever growing
+ * set of entities. Rows are validated up front so a bad row is reported as a warning instead
+ * of failing the batch.
+ */
+@Service
+public class ScheduleBatchWriter {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private SolverMetrics solverMetrics;
+    
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+    
+    /**
+     * Insert the new schedules, adding a "Failed to save schedule" warning to {@code result} for
+     * every row that is rejected by validation. Returns the persisted rows.
+     */
+    @Transactional
+    public List<Schedule> insertAll(List<Schedule> schedules, SchedulingResult result) {
+        List<Schedule> saved = new ArrayList<>(schedules.size());
+        List<Schedule> pending = new ArrayList<>(batchSize);
+        
+        for (Schedule schedule : schedules) {
+            String problem = validate(schedule);
+            if (problem != null) {
+                result.addWarning("Failed to save schedule: " + problem);
+                continue;
+            }
+            
+            entityManager.persist(schedule);
+            saved.add(schedule);
+            pending.add(schedule);
+            
+            if (pending.size() == batchSize) {
+                flushAndDetach(pending);
+            }
+        }
+        
+        flushAndDetach(pending);
+        return saved;
+    }
+    
+    /**
+     * Send the pending INSERTs and drop those rows from the persistence context. Only the new
+     * schedules are detached; the teachers, rooms and sections they reference stay managed.
+     */
+    private void flushAndDetach(List<Schedule> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        solverMetrics.persistenceBatch();
+        for (Schedule schedule : pending) {
+            entityManager.detach(schedule);
+        }
+        pending.clear();
+    }
+    
+    private String validate(Schedule schedule) {
+        Set<ConstraintViolation<Schedule>> violations = validator.validate(schedule);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .collect(Collectors.joining(", "));
+        }
+        
+        if (schedule.getTeacher() == null || schedule.getClassroom() == null ||
+            schedule.getSection() == null || schedule.getSubject() == null) {
+            return "teacher, classroom, section and subject are required";
+        }
+        if (!schedule.getEndTime().isAfter(schedule.getStartTime())) {
+            return "end time " + schedule.getEndTime() + " is not after start time " + schedule.getStartTime();
+        }
+        return null;
+    }
+}
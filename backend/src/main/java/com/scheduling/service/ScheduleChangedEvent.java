@@ -0,0 +1,37 @@
+package com.scheduling.service;
+
+import com.scheduling.model.Schedule;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published after schedule rows are written, so in-memory views of the schedule table can follow.
+ * {@code saved} holds rows that were inserted or updated, {@code removedIds} rows that were deleted.
+ */
+public class ScheduleChangedEvent {
+    
+    private final List<Schedule> saved;
+    private final List<Long> removedIds;
+    
+    public ScheduleChangedEvent(Collection<Schedule> saved, Collection<Long> removedIds) {
+        this.saved = List.copyOf(saved);
+        this.removedIds = List.copyOf(removedIds);
+    }
+    
+    public static ScheduleChangedEvent saved(Collection<Schedule> schedules) {
+        return new ScheduleChangedEvent(schedules, List.of());
+    }
+    
+    public static ScheduleChangedEvent removed(Long scheduleId) {
+        return new ScheduleChangedEvent(List.of(), List.of(scheduleId));
+    }
+    
+    public List<Schedule> getSaved() {
+        return saved;
+    }
+    
+    public List<Long> getRemovedIds() {
+        return removedIds;
+    }
+}
@@ -0,0 +1,289 @@
+package com.scheduling.service;
+
+import com.scheduling.model.DayOfWeek;
+import com.scheduling.model.Schedule;
+import com.scheduling.model.ScheduleStatus;
+import com.scheduling.repository.ScheduleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * In-memory interval index of the active schedule rows, used to reject double bookings on manual edits.
+ * Bookings are kept per (teacher, day), (classroom, day) and (section, day), sorted by start
+ * minute, so a conflict check is a few map lookups and a scan of one day's lessons instead of
+ * database round trips. Recurring rows book their weekday every week; one-off rows book only their
+ * date, so two one-off rows clash only on the same date. Rows of two different school years never
+ * clash; a row without a school year is checked against all of them. The index is loaded from the
+ * repository on first use and then follows {@link ScheduleChangedEvent}s; cancelled rows are not indexed.
+ * Manual writes go through {@link #checkAndSave}, which checks and books the slot under the index
+ * lock, so two requests cannot both pass the check for the same slot.
+ */
+@Service
+public class ScheduleConflictIndex {
+    
+    private static final String[] RESOURCES = {"teacher", "classroom", "section"};
+    private static final int TEACHER = 0;
+    private static final int CLASSROOM = 1;
+    private static final int SECTION = 2;
+    
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+    
+    private final Map<Long, Booking> bookingsById = new HashMap<>();
+    private final Map<Long, List<Booking>> bookingsByKey = new HashMap<>();
+    private boolean loaded;
+    
+    /**
+     * What {@link #checkAndSave} did: the conflicts it found and the saved row, which is null when
+     * the write was rejected because of those conflicts
+     */
+    public static class CheckedWrite {
+        private final List<Map<String, Object>> conflicts;
+        private final Schedule saved;
+        
+        CheckedWrite(List<Map<String, Object>> conflicts, Schedule saved) {
+            this.conflicts = conflicts;
+            this.saved = saved;
+        }
+        
+        public List<Map<String, Object>> getConflicts() {
+            return conflicts;
+        }
+        
+        public Schedule getSaved() {
+            return saved;
+        }
+        
+        public boolean isRejected() {
+            return saved == null;
+        }
+    }
+    
+    private static class Booking {
+        final long scheduleId;
+        final long[] resourceIds = new long[RESOURCES.length]; // 0 = not set
+        final long schoolYearId; // 0 = not set
+        final LocalDate date; // null for recurring rows
+        final DayOfWeek day;
+        final int startMinute;
+        final int endMinute;
+        
+        Booking(long scheduleId, Long teacherId, Long classroomId, Long sectionId, Long schoolYearId,
+                LocalDate date, DayOfWeek day, LocalTime start, LocalTime end) {
+            this.scheduleId = scheduleId;
+            this.resourceIds[TEACHER] = teacherId != null ? teacherId : 0;
+            this.resourceIds[CLASSROOM] = classroomId != null ? classroomId : 0;
+            this.resourceIds[SECTION] = sectionId != null ? sectionId : 0;
+            this.schoolYearId = schoolYearId != null ? schoolYearId : 0;
+            this.date = date;
+            this.day = day;
+            this.startMinute = start.toSecondOfDay() / 60;
+            this.endMinute = end.toSecondOfDay() / 60;
+        }
+        
+        /**
+         * Whether two bookings on the same weekday can meet: on the same date unless one recurs weekly,
+         * and not in two different school years. Their times are checked separately.
+         */
+        boolean sharesDateWith(Booking other) {
+            if (schoolYearId != 0 && other.schoolYearId != 0 && schoolYearId != other.schoolYearId) {
+                return false;
+            }
+            return date == null || other.date == null || date.equals(other.date);
+        }
+    }
+    
+    /**
+     * Bookings that overlap {@code schedule} for its teacher, classroom or section, ignoring the
+     * row itself. Each conflict names the resource and the row it clashes with.
+     */
+    public synchronized List<Map<String, Object>> findConflicts(Schedule schedule) {
+        ensureLoaded();
+        Booking probe = toBooking(schedule, schedule.getId() != null ? schedule.getId() : -1L);
+        List<Map<String, Object>> conflicts = new ArrayList<>();
+        if (probe == null) {
+            return conflicts;
+        }
+        
+        for (int resource = 0; resource < RESOURCES.length; resource++) {
+            if (probe.resourceIds[resource] == 0) {
+                continue;
+            }
+            List<Booking> day = bookingsByKey.get(key(resource, probe.resourceIds[resource], probe.day));
+            if (day == null) {
+                continue;
+            }
+            for (Booking booking : day) {
+                if (booking.startMinute >= probe.endMinute) {
+                    break; // sorted by start, nothing later can overlap
+                }
+                if (booking.endMinute > probe.startMinute && booking.scheduleId != probe.scheduleId &&
+                    booking.sharesDateWith(probe)) {
+                    Map<String, Object> conflict = new LinkedHashMap<>();
+                    conflict.put("resource", RESOURCES[resource]);
+                    conflict.put("resourceId", probe.resourceIds[resource]);
+                    conflict.put("scheduleId", booking.scheduleId);
+                    if (booking.date != null) {
+                        conflict.put("date", booking.date);
+                    }
+                    conflict.put("dayOfWeek", booking.day);
+                    conflict.put("startTime", LocalTime.ofSecondOfDay(booking.startMinute * 60L));
+                    conflict.put("endTime", LocalTime.ofSecondOfDay(booking.endMinute * 60L));
+                    conflicts.add(conflict);
+                }
+            }
+        }
+        return conflicts;
+    }
+    
+    /**
+     * Check {@code schedule} for conflicts and, unless there are some and {@code allowConflicts}
+     * is false, reserve its slot and run {@code save}, all while holding the index lock.
+     * If the save throws, the reservation is released (an update gets its previous booking back)
+     * and the exception is rethrown.
+     */
+    public synchronized CheckedWrite checkAndSave(Schedule schedule, boolean allowConflicts, Supplier<Schedule> save) {
+        List<Map<String, Object>> conflicts = findConflicts(schedule);
+        if (!conflicts.isEmpty() && !allowConflicts) {
+            return new CheckedWrite(conflicts, null);
+        }
+        
+        // New rows have no id yet, so their reservation is held under one no row can have
+        long reservationId = schedule.getId() != null ? schedule.getId() : -1L;
+        Booking previous = bookingsById.get(reservationId);
+        Booking reservation = toBooking(schedule, reservationId);
+        if (reservation != null) {
+            index(reservation);
+        }
+        
+        Schedule saved;
+        try {
+            saved = save.get();
+        } catch (RuntimeException e) {
+            remove(reservationId);
+            if (previous != null) {
+                index(previous);
+            }
+            throw e;
+        }
+        
+        if (reservationId < 0) {
+            remove(reservationId);
+        }
+        put(saved);
+        return new CheckedWrite(conflicts, saved);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onScheduleChanged(ScheduleChangedEvent event) {
+        if (!loaded) {
+            return; // the first lookup loads the committed state anyway
+        }
+        for (Long id : event.getRemovedIds()) {
+            remove(id);
+        }
+        for (Schedule schedule : event.getSaved()) {
+            put(schedule);
+        }
+    }
+    
+    /**
+     * Drop the index; it is reloaded from the database on the next lookup
+     */
+    public synchronized void invalidate() {
+        bookingsById.clear();
+        bookingsByKey.clear();
+        loaded = false;
+    }
+    
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        for (Schedule schedule : scheduleRepository.findAll()) {
+            put(schedule);
+        }
+        loaded = true;
+    }
+    
+    private void put(Schedule schedule) {
+        if (schedule.getId() == null) {
+            return;
+        }
+        remove(schedule.getId());
+        
+        Booking booking = schedule.getStatus() == ScheduleStatus.CANCELLED ? null : toBooking(schedule, schedule.getId());
+        if (booking != null) {
+            index(booking);
+        }
+    }
+    
+    private void index(Booking booking) {
+        remove(booking.scheduleId);
+        bookingsById.put(booking.scheduleId, booking);
+        for (int resource = 0; resource < RESOURCES.length; resource++) {
+            if (booking.resourceIds[resource] == 0) {
+                continue;
+            }
+            List<Booking> day = bookingsByKey.computeIfAbsent(key(resource, booking.resourceIds[resource], booking.day),
+                                                              key -> new ArrayList<>());
+            int position = 0;
+            while (position < day.size() && day.get(position).startMinute <= booking.startMinute) {
+                position++;
+            }
+            day.add(position, booking);
+        }
+    }
+    
+    private void remove(Long scheduleId) {
+        Booking booking = bookingsById.remove(scheduleId);
+        if (booking == null) {
+            return;
+        }
+        for (int resource = 0; resource < RESOURCES.length; resource++) {
+            if (booking.resourceIds[resource] == 0) {
+                continue;
+            }
+            long key = key(resource, booking.resourceIds[resource], booking.day);
+            List<Booking> day = bookingsByKey.get(key);
+            if (day != null) {
+                day.remove(booking);
+                if (day.isEmpty()) {
+                    bookingsByKey.remove(key);
+                }
+            }
+        }
+    }
+    
+    private static Booking toBooking(Schedule schedule, long scheduleId) {
+        // One-off rows are placed by their date, recurring ones by their weekday
+        LocalDate date = schedule.isRecurring() ? null : schedule.getDate();
+        DayOfWeek day = date != null ? DayOfWeek.valueOf(date.getDayOfWeek().name()) : schedule.getDayOfWeek();
+        if (day == null && schedule.getDate() != null) {
+            day = DayOfWeek.valueOf(schedule.getDate().getDayOfWeek().name());
+        }
+        if (day == null || schedule.getStartTime() == null || schedule.getEndTime() == null) {
+            return null;
+        }
+        return new Booking(scheduleId,
+                           schedule.getTeacher() != null ? schedule.getTeacher().getId() : null,
+                           schedule.getClassroom() != null ? schedule.getClassroom().getId() : null,
+                           schedule.getSection() != null ? schedule.getSection().getId() : null,
+                           schedule.getSchoolYear() != null ? schedule.getSchoolYear().getId() : null,
+                           date, day, schedule.getStartTime(), schedule.getEndTime());
+    }
+    
+    private static long key(int resource, long resourceId, DayOfWeek day) {
+        return (resourceId << 5) | ((long) resource << 3) | day.ordinal();
+    }
+}
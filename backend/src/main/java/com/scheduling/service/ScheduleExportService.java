@@ -0,0 +1,103 @@
+package com.scheduling.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scheduling.dto.ScheduleRow;
+import com.scheduling.repository.ScheduleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Timetable exports written row by row from a repository stream, so memory use stays flat
+ * however many schedules are exported. Rows are flat projections, so nothing accumulates in
+ * the persistence context while the stream is consumed.
+ */
+@Service
+public class ScheduleExportService {
+    
+    public enum Format { NDJSON, CSV }
+    
+    private static final String[] CSV_HEADER = {
+        "id", "date", "dayOfWeek", "startTime", "endTime", "status", "recurring", "durationIndex",
+        "teacherId", "teacherName", "classroomId", "roomName", "sectionId", "sectionName",
+        "subjectId", "subjectName", "subjectCode", "schoolYearId"
+    };
+    
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    /**
+     * Write every schedule (or only those of one school year) to {@code out}.
+     * Opens its own read-only transaction, so it can run on the thread that streams the response.
+     */
+    @Transactional(readOnly = true)
+    public void export(Long schoolYearId, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<ScheduleRow> rows = schoolYearId != null
+                ? scheduleRepository.streamRowsBySchoolYearId(schoolYearId)
+                : scheduleRepository.streamAllRows()) {
+            if (format == Format.CSV) {
+                writeCsvLine(writer, CSV_HEADER);
+            }
+            Iterator<ScheduleRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                ScheduleRow row = iterator.next();
+                if (format == Format.CSV) {
+                    writeCsvLine(writer, toCsvFields(row));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+            }
+        }
+        writer.flush();
+    }
+    
+    private static String[] toCsvFields(ScheduleRow row) {
+        return new String[] {
+            string(row.getId()), string(row.getDate()), string(row.getDayOfWeek()),
+            string(row.getStartTime()), string(row.getEndTime()), string(row.getStatus()),
+            String.valueOf(row.isRecurring()), string(row.getDurationIndex()),
+            string(row.getTeacherId()), row.getTeacherName(), string(row.getClassroomId()), row.getRoomName(),
+            string(row.getSectionId()), row.getSectionName(), string(row.getSubjectId()), row.getSubjectName(),
+            row.getSubjectCode(), string(row.getSchoolYearId())
+        };
+    }
+    
+    private static String string(Object value) {
+        return value != null ? value.toString() : null;
+    }
+    
+    // RFC 4180: quote fields containing a separator, quote or line break, doubling inner quotes
+    private static void writeCsvLine(Writer writer, String[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String field = fields[i];
+            if (field == null) {
+                continue;
+            }
+            if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(field.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(field);
+            }
+        }
+        writer.write("\r\n");
+    }
+}
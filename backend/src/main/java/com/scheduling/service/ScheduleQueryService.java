@@ -0,0 +1,110 @@
+package com.scheduling.service;
+
+import com.scheduling.dto.ScheduleFilter;
+import com.scheduling.dto.SchedulePage;
+import com.scheduling.dto.ScheduleRow;
+import com.scheduling.model.DayOfWeek;
+import com.scheduling.repository.ScheduleRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset-paginated schedule listings.
+ * Rows are ordered by (day order, start time, id) and each page continues strictly after the
+ * last row of the previous one, so pages stay stable while rows are added or removed. Unfiltered
+ * listings seek into idx_schedules_day_start_id, so the cost of a page does not grow with its
+ * position; filtered ones use the filter's index and sort only the matching rows.
+ */
+@Service
+public class ScheduleQueryService {
+    
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 500;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    /**
+     * The page after {@code cursor} (or the first page if null) of at most {@code limit} rows
+     *
+     * @throws IllegalArgumentException if the cursor is not one this service issued
+     */
+    @Transactional(readOnly = true)
+    public SchedulePage findPage(ScheduleFilter filter, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        StringBuilder jpql = new StringBuilder(ScheduleRepository.SCHEDULE_ROW_SELECT).append("WHERE 1 = 1");
+        
+        appendFilter(jpql, parameters, "t.id", "teacherId", filter.getTeacherId());
+        appendFilter(jpql, parameters, "sec.id", "sectionId", filter.getSectionId());
+        appendFilter(jpql, parameters, "c.id", "classroomId", filter.getClassroomId());
+        appendFilter(jpql, parameters, "sub.id", "subjectId", filter.getSubjectId());
+        appendFilter(jpql, parameters, "s.status", "status", filter.getStatus());
+        appendFilter(jpql, parameters, "sy.id", "schoolYearId", filter.getSchoolYearId());
+        
+        if (cursor != null && !cursor.isBlank()) {
+            long[] position = decodeCursor(cursor);
+            // The redundant leading bound gives the index a range to seek to
+            jpql.append(" AND s.dayOrder >= :cursorDay AND (s.dayOrder > :cursorDay OR (s.dayOrder = :cursorDay")
+                .append(" AND (s.startTime > :cursorTime OR (s.startTime = :cursorTime AND s.id > :cursorId))))");
+            parameters.put("cursorDay", (int) position[0]);
+            parameters.put("cursorTime", LocalTime.ofSecondOfDay(position[1]));
+            parameters.put("cursorId", position[2]);
+        }
+        jpql.append(" ORDER BY s.dayOrder, s.startTime, s.id");
+        
+        TypedQuery<ScheduleRow> query = entityManager.createQuery(jpql.toString(), ScheduleRow.class);
+        parameters.forEach(query::setParameter);
+        
+        // One extra row tells whether another page follows
+        List<ScheduleRow> rows = new ArrayList<>(query.setMaxResults(pageSize + 1).getResultList());
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows.remove(pageSize);
+            nextCursor = encodeCursor(rows.get(pageSize - 1));
+        }
+        return new SchedulePage(rows, nextCursor);
+    }
+    
+    private static void appendFilter(StringBuilder jpql, Map<String, Object> parameters,
+                                     String path, String name, Object value) {
+        if (value != null) {
+            jpql.append(" AND ").append(path).append(" = :").append(name);
+            parameters.put(name, value);
+        }
+    }
+    
+    private static String encodeCursor(ScheduleRow row) {
+        String position = row.getDayOfWeek().ordinal() + ":" + row.getStartTime().toSecondOfDay() + ":" + row.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.US_ASCII));
+    }
+    
+    private static long[] decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII).split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            long[] position = {Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2])};
+            if (position[0] < 0 || position[0] >= DayOfWeek.values().length ||
+                position[1] < 0 || position[1] >= 24 * 60 * 60) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return position;
+        } catch (IllegalArgumentException e) {
+            // Also covers bad Base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
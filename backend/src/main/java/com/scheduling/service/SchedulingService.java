@@ -1,46 +1,135 @@
 package com.scheduling.service;
 
+import com.scheduling.dto.ScheduleAggregate;
 import com.scheduling.model.*;
 import com.scheduling.repository.*;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 @Service
 public class SchedulingService {
     
     @Autowired
-    private ClassroomRepository classroomRepository;
+    private ScheduleRepository scheduleRepository;
     
     @Autowired
-    private TeacherRepository teacherRepository;
+    private ReferenceDataCache referenceDataCache;
     
     @Autowired
-    private ScheduleRepository scheduleRepository;
+    private ScheduleBatchWriter scheduleBatchWriter;
     
     @Autowired
-    private SectionRepository sectionRepository;
+    private SolverMetrics solverMetrics;
     
     @Autowired
-    private SubjectRepository subjectRepository;
+    private ApplicationEventPublisher eventPublisher;
+    
+    // Upper bound for multi-start runs per generation
+    public static final int MAX_STARTS = 256;
+    
+    // Base seed for the randomized orderings, so repeated runs are reproducible
+    private static final long MULTI_START_SEED = 0x5EEDL;
+    
+    // Base request order: higher priority first, then longer blocks first
+    private static final Comparator<SchedulingRequest> REQUEST_ORDER =
+        Comparator.comparingInt(SchedulingRequest::getPriority).reversed()
+                  .thenComparing(Comparator.comparingInt(SchedulingRequest::getConsecutiveHours).reversed());
+    
+    @Value("${scheduling.multi-start.parallelism:0}")
+    private int multiStartParallelism;
+    
+    @Value("${scheduling.csp.max-nodes:200000}")
+    private long cspMaxNodes;
+    
+    @Value("${scheduling.csp.time-budget-ms:5000}")
+    private long cspTimeBudgetMillis;
+    
+    @Value("${scheduling.balance.time-budget-ms:1000}")
+    private long balanceTimeBudgetMillis;
+    
+    @Value("${scheduling.trace.level:OFF}")
+    private SolverTrace.Level traceLevel;
+    
+    @Value("${scheduling.trace.capacity:4096}")
+    private int traceCapacity;
+    
+    private ForkJoinPool solverPool;
+    
+    // Traces of the most recent generation, keyed by run index (-1 = request generation)
+    private volatile Map<Integer, SolverTrace> lastTraces = Map.of();
+    
+    /**
+     * A service for driving the solver outside the Spring context (benchmarks).
+     * Only the in-memory solver methods may be used: there are no repositories, no solver pool
+     * and tracing is off.
+     */
+    static SchedulingService detached(SolverMetrics solverMetrics) {
+        SchedulingService service = new SchedulingService();
+        service.solverMetrics = solverMetrics;
+        service.traceLevel = SolverTrace.Level.OFF;
+        return service;
+    }
+    
+    @PostConstruct
+    void initSolverPool() {
+        int parallelism = multiStartParallelism > 0 ? multiStartParallelism : Runtime.getRuntime().availableProcessors();
+        solverPool = new ForkJoinPool(parallelism);
+    }
+    
+    @PreDestroy
+    void shutdownSolverPool() {
+        solverPool.shutdownNow();
+    }
     
     /**
      * Generate an optimized schedule using constraint satisfaction and optimization algorithms
      */
     public SchedulingResult generateOptimizedSchedule() {
+        return generateOptimizedSchedule(1);
+    }
+    
+    /**
+     * Generate an optimized schedule, running the solver {@code starts} times in parallel with
+     * different randomized request orderings and keeping the best result
+     */
+    public SchedulingResult generateOptimizedSchedule(int starts) {
+        return generateOptimizedSchedule(starts, SolverProgress.NONE);
+    }
+    
+    /**
+     * Generate an optimized schedule, reporting progress to {@code progress} and stopping before
+     * anything is saved once it reports cancellation
+     */
+    public SchedulingResult generateOptimizedSchedule(int starts, SolverProgress progress) {
         SchedulingResult result = new SchedulingResult();
         
         try {
-            // Get all entities
-            List<Section> sections = sectionRepository.findAll();
-            List<Subject> subjects = subjectRepository.findAllOrderByPriority();
-            List<Teacher> teachers = teacherRepository.findAll();
-            List<Classroom> classrooms = classroomRepository.findAll();
+            // Get all entities (cached until the reference data changes)
+            Timer.Sample phase = solverMetrics.startPhase();
+            ReferenceDataSnapshot referenceData = referenceDataCache.current();
+            List<Section> sections = referenceData.getSections();
+            List<Subject> subjects = referenceData.getSubjects();
+            List<Teacher> teachers = referenceData.getTeachers();
+            List<Classroom> classrooms = referenceData.getClassrooms();
+            BellSchedule bellSchedule = referenceData.getBellSchedule();
+            solverMetrics.endPhase(phase, SolverMetrics.PHASE_LOAD);
             
             // Validate prerequisites
             if (!validatePrerequisites(sections, subjects, teachers, classrooms)) {
@@ -50,31 +139,56 @@ public class SchedulingService {
             }
             
             // Generate scheduling requests
-            List<SchedulingRequest> requests = generateSchedulingRequests(sections, subjects);
+            phase = solverMetrics.startPhase();
+            SolverTrace setupTrace = newTrace();
+            List<SchedulingRequest> requests = generateSchedulingRequests(sections, subjects, setupTrace);
+            solverMetrics.requestsGenerated(requests.size());
+            solverMetrics.endPhase(phase, SolverMetrics.PHASE_REQUESTS);
             
-            // Apply constraint satisfaction algorithm
-            List<Schedule> schedules = constraintSatisfactionScheduling(requests, teachers, classrooms);
+            // Apply constraint satisfaction algorithm, once per start, keeping the best run
+            phase = solverMetrics.startPhase();
+            List<SolverRun> runs = solveMultiStart(requests, teachers, classrooms, bellSchedule, starts, progress);
+            solverMetrics.endPhase(phase, SolverMetrics.PHASE_SOLVE);
+            if (traceLevel != SolverTrace.Level.OFF) {
+                Map<Integer, SolverTrace> traces = new LinkedHashMap<>();
+                traces.put(-1, setupTrace);
+                for (SolverRun run : runs) {
+                    traces.put(run.getRunIndex(), run.getTrace());
+                }
+                lastTraces = traces;
+            }
+            SolverRun bestRun = null;
+            for (SolverRun run : runs) {
+                if (run.isBetterThan(bestRun)) {
+                    bestRun = run;
+                }
+            }
+            List<Schedule> schedules = bestRun.getSchedules();
             
             // Optimize workload distribution
-            schedules = optimizeWorkloadDistribution(schedules, teachers);
+            checkCancelled(progress);
+            phase = solverMetrics.startPhase();
+            Map<String, Object> workloadBalance = optimizeWorkloadDistribution(schedules, teachers, classrooms, bellSchedule);
+            solverMetrics.endPhase(phase, SolverMetrics.PHASE_BALANCE);
             
             // Save schedules
-            List<Schedule> savedSchedules = new ArrayList<>();
-            for (Schedule schedule : schedules) {
-                try {
-                    Schedule saved = scheduleRepository.save(schedule);
-                    savedSchedules.add(saved);
-                } catch (Exception e) {
-                    result.addWarning("Failed to save schedule: " + e.getMessage());
-                }
-            }
+            checkCancelled(progress);
+            phase = solverMetrics.startPhase();
+            List<Schedule> savedSchedules = scheduleBatchWriter.insertAll(schedules, result);
+            solverMetrics.endPhase(phase, SolverMetrics.PHASE_PERSIST);
+            eventPublisher.publishEvent(ScheduleChangedEvent.saved(savedSchedules));
             
             result.setSchedules(savedSchedules);
             result.setSuccess(true);
             result.setMessage(String.format("Successfully generated %d schedule entries", savedSchedules.size()));
             
             // Generate statistics
-            result.setStatistics(generateStatistics(savedSchedules));
+            Map<String, Object> statistics = generateStatistics(savedSchedules);
+            statistics.put("requestedSchedules", requests.size());
+            statistics.put("bestRun", bestRun.getRunIndex());
+            statistics.put("runs", runs.stream().map(SolverRun::toStatistics).collect(Collectors.toList()));
+            statistics.put("workloadBalance", workloadBalance);
+            result.setStatistics(statistics);
             
         } catch (Exception e) {
             result.setSuccess(false);
@@ -84,6 +198,326 @@ public class SchedulingService {
         return result;
     }
     
+    /**
+     * Run the constraint satisfaction scheduler once per start on the solver pool.
+     * Run 0 uses the priority order from generateSchedulingRequests; the others shuffle requests
+     * of equal priority with their own seed. Every run works on its own occupancy state and only
+     * reads the shared entities, whose lazy collections the reference data snapshot has initialized.
+     */
+    private List<SolverRun> solveMultiStart(List<SchedulingRequest> requests, List<Teacher> teachers,
+                                            List<Classroom> classrooms, BellSchedule bellSchedule,
+                                            int starts, SolverProgress progress)
+            throws InterruptedException, ExecutionException {
+        int runCount = Math.max(1, Math.min(starts, MAX_STARTS));
+        progress.started(requests.size(), runCount);
+        
+        if (runCount == 1) {
+            return List.of(solveOnce(0, requests, teachers, classrooms, bellSchedule, progress));
+        }
+        
+        List<Callable<SolverRun>> tasks = new ArrayList<>();
+        for (int run = 0; run < runCount; run++) {
+            final int runIndex = run;
+            tasks.add(() -> solveOnce(runIndex, requests, teachers, classrooms, bellSchedule, progress));
+        }
+        
+        List<SolverRun> runs = new ArrayList<>();
+        for (Future<SolverRun> future : solverPool.invokeAll(tasks)) {
+            runs.add(future.get());
+        }
+        return runs;
+    }
+    
+    private SolverRun solveOnce(int runIndex, List<SchedulingRequest> requests, List<Teacher> teachers,
+                                List<Classroom> classrooms, BellSchedule bellSchedule, SolverProgress progress) {
+        checkCancelled(progress);
+        long startedAt = System.currentTimeMillis();
+        long seed = MULTI_START_SEED + runIndex;
+        
+        List<SchedulingRequest> ordering = requests;
+        if (runIndex > 0) {
+            // Shuffle, then restore the base order; the stable sort keeps ties in shuffled order
+            ordering = new ArrayList<>(requests);
+            Collections.shuffle(ordering, new Random(seed));
+            ordering.sort(REQUEST_ORDER);
+        }
+        
+        SolverTrace trace = newTrace();
+        List<Schedule> schedules = constraintSatisfactionScheduling(ordering, teachers, classrooms, bellSchedule,
+                                                                    progress, trace);
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("greedyPlaced", schedules.size());
+        
+        // Fall back to backtracking search when first-fit leaves requests unplaced
+        if (schedules.size() < ordering.size() && cspMaxNodes > 0) {
+            BacktrackingScheduler search = new BacktrackingScheduler(ordering, teachers, classrooms, bellSchedule);
+            search.setCancellation(progress::isCancelled);
+            search.solve(cspMaxNodes, cspTimeBudgetMillis);
+            checkCancelled(progress);
+            solverMetrics.searchNodes(search.getNodes());
+            trace.record(SolverTrace.Event.SEARCH_FINISHED, search.getPlacedCount(), search.getNodes(),
+                         search.getBacktracks(), search.isBudgetExhausted() ? 1 : 0, search.getElapsedMillis());
+            
+            details.put("searchPlaced", search.getPlacedCount());
+            details.put("searchNodes", search.getNodes());
+            details.put("searchBacktracks", search.getBacktracks());
+            details.put("searchBudgetExhausted", search.isBudgetExhausted());
+            details.put("searchElapsedMs", search.getElapsedMillis());
+            
+            if (search.getPlacedCount() > schedules.size()) {
+                List<Schedule> searched = new ArrayList<>();
+                for (int i = 0; i < ordering.size(); i++) {
+                    if (search.isPlaced(i)) {
+                        searched.add(buildSchedule(ordering.get(i), search.getDay(i), search.getStartSlot(i),
+                                                   teachers.get(search.getTeacherIndex(i)),
+                                                   classrooms.get(search.getClassroomIndex(i)), bellSchedule));
+                    }
+                }
+                validateSameDaySubjectConstraints(searched);
+                schedules = searched;
+            }
+        }
+        
+        SolverRun run = new SolverRun(runIndex, seed, schedules, requests.size(),
+                                      workloadImbalance(schedules, teachers), System.currentTimeMillis() - startedAt);
+        run.getDetails().putAll(details);
+        run.setTrace(trace);
+        solverMetrics.runFinished(run.getPlacedCount(), run.getUnplacedCount());
+        progress.runCompleted(run);
+        return run;
+    }
+    
+    private SolverTrace newTrace() {
+        return traceLevel == SolverTrace.Level.OFF ? SolverTrace.DISABLED : new SolverTrace(traceLevel, traceCapacity);
+    }
+    
+    /**
+     * Last {@code limit} trace events of a run of the most recent generation (-1 for request generation)
+     */
+    public Optional<List<Map<String, Object>>> getTraceEvents(int run, int limit) {
+        SolverTrace trace = lastTraces.get(run);
+        return trace == null ? Optional.empty() : Optional.of(trace.lastEvents(limit));
+    }
+    
+    private static void checkCancelled(SolverProgress progress) {
+        if (progress.isCancelled()) {
+            throw new CancellationException("Schedule generation was cancelled");
+        }
+    }
+    
+    /**
+     * Soft penalty: sum of squared deviations of each teacher's scheduled minutes from the mean
+     */
+    private double workloadImbalance(List<Schedule> schedules, List<Teacher> teachers) {
+        if (teachers.isEmpty()) {
+            return 0;
+        }
+        
+        Map<Long, Long> minutesByTeacher = new HashMap<>();
+        long totalMinutes = 0;
+        for (Schedule schedule : schedules) {
+            long minutes = java.time.Duration.between(schedule.getStartTime(), schedule.getEndTime()).toMinutes();
+            minutesByTeacher.merge(schedule.getTeacher().getId(), minutes, Long::sum);
+            totalMinutes += minutes;
+        }
+        
+        double mean = (double) totalMinutes / teachers.size();
+        double penalty = 0;
+        for (Teacher teacher : teachers) {
+            double deviation = minutesByTeacher.getOrDefault(teacher.getId(), 0L) - mean;
+            penalty += deviation * deviation;
+        }
+        return penalty;
+    }
+    
+    /**
+     * Delta re-solve after a single teacher, classroom, section or subject changed.
+     * Only schedule rows that reference the changed entity and no longer satisfy its constraints
+     * (availability day or window, qualified subject, room capacity or type, section day pattern)
+     * are re-placed. The occupancy is built from the other active rows of the resources they can
+     * move to: their sections, the teachers qualified for their subjects and the rooms that fit them.
+     * Rows that cannot be re-placed are marked CANCELLED and reported as warnings.
+     */
+    public SchedulingResult rescheduleAffected(Long teacherId, Long classroomId, Long sectionId, Long subjectId) {
+        SchedulingResult result = new SchedulingResult();
+        long startedAt = System.currentTimeMillis();
+        Timer.Sample phase = solverMetrics.startPhase();
+        
+        try {
+            ReferenceDataSnapshot referenceData = referenceDataCache.current();
+            List<Teacher> teachers = referenceData.getTeachers();
+            List<Classroom> classrooms = referenceData.getClassrooms();
+            BellSchedule bellSchedule = referenceData.getBellSchedule();
+            
+            // Split the rows referencing the change into pinned ones and rows it made infeasible
+            Map<Long, Schedule> pinnedById = new LinkedHashMap<>();
+            List<Schedule> affected = new ArrayList<>();
+            for (Schedule schedule : scheduleRepository.findActiveReferencing(teacherId, classroomId, sectionId, subjectId)) {
+                if (isPlacementStillValid(schedule, bellSchedule)) {
+                    pinnedById.put(schedule.getId(), schedule);
+                } else {
+                    affected.add(schedule);
+                }
+            }
+            
+            // Pin the other rows of every teacher, room and section an affected row could be placed with
+            if (!affected.isEmpty()) {
+                Set<Long> affectedIds = new HashSet<>();
+                Set<Long> teacherIds = new HashSet<>();
+                Set<Long> classroomIds = new HashSet<>();
+                Set<Long> sectionIds = new HashSet<>();
+                for (Schedule schedule : affected) {
+                    affectedIds.add(schedule.getId());
+                    teacherIds.add(schedule.getTeacher().getId());
+                    classroomIds.add(schedule.getClassroom().getId());
+                    sectionIds.add(schedule.getSection().getId());
+                    Subject subject = schedule.getSubject();
+                    for (Teacher teacher : teachers) {
+                        if (teacher.getSubjects() != null && teacher.getSubjects().contains(subject.getName())) {
+                            teacherIds.add(teacher.getId());
+                        }
+                    }
+                    for (Classroom classroom : classrooms) {
+                        if (classroom.getCapacity() >= schedule.getSection().getStudentCount() &&
+                            (classroom.getRoomType().equals(subject.getRequiredRoomType()) ||
+                             "Any".equals(subject.getRequiredRoomType()))) {
+                            classroomIds.add(classroom.getId());
+                        }
+                    }
+                }
+                for (Schedule schedule : scheduleRepository.findActiveSharingResources(teacherIds, classroomIds, sectionIds)) {
+                    if (!affectedIds.contains(schedule.getId())) {
+                        pinnedById.putIfAbsent(schedule.getId(), schedule);
+                    }
+                }
+            }
+            List<Schedule> pinned = new ArrayList<>(pinnedById.values());
+            
+            Set<Section> sections = new LinkedHashSet<>();
+            for (Schedule schedule : pinned) {
+                sections.add(schedule.getSection());
+            }
+            for (Schedule schedule : affected) {
+                sections.add(schedule.getSection());
+            }
+            OccupancyGrid occupancy = new OccupancyGrid(teachers, classrooms, sections);
+            CandidateIndex candidateIndex = new CandidateIndex(teachers, classrooms, bellSchedule, occupancy);
+            Map<String, Set<String>> sectionDaySubjects = new HashMap<>();
+            for (Schedule schedule : pinned) {
+                // Every slot the row overlaps, so rows whose times are off the bell grid still block it
+                int startSlot = bellSchedule.slotsEndingBy(schedule.getStartTime());
+                int endSlot = bellSchedule.firstSlotStartingAtOrAfter(schedule.getEndTime());
+                if (endSlot > startSlot) {
+                    occupancy.occupy(occupancy.teacherIndex(schedule.getTeacher()),
+                                     occupancy.classroomIndex(schedule.getClassroom()),
+                                     occupancy.sectionIndex(schedule.getSection()),
+                                     schedule.getDayOfWeek(),
+                                     OccupancyGrid.blockMask(startSlot, endSlot - startSlot));
+                }
+                sectionDaySubjects.computeIfAbsent(schedule.getSection().getId() + "-" + schedule.getDayOfWeek(), k -> new HashSet<>())
+                                 .add(schedule.getSubject().getName());
+            }
+            
+            // Re-place the affected rows against the pinned occupancy, longest lessons first
+            affected.sort((s1, s2) -> Long.compare(
+                ChronoUnit.MINUTES.between(s2.getStartTime(), s2.getEndTime()),
+                ChronoUnit.MINUTES.between(s1.getStartTime(), s1.getEndTime())));
+            
+            List<Schedule> changed = new ArrayList<>();
+            LongAdder probes = new LongAdder();
+            int rescheduled = 0;
+            for (Schedule schedule : affected) {
+                SchedulingRequest request = new SchedulingRequest();
+                request.setSection(schedule.getSection());
+                request.setSubject(schedule.getSubject());
+                request.setRequiredCapacity(schedule.getSection().getStudentCount());
+                request.setRoomType(schedule.getSubject().getRequiredRoomType());
+                request.setPriority(schedule.getSubject().getPriority());
+                request.setDurationIndex(schedule.getDurationIndex() != null ? schedule.getDurationIndex() : 0);
+                request.setConsecutiveHours((int) (ChronoUnit.MINUTES.between(schedule.getStartTime(), schedule.getEndTime())
+                                                   / bellSchedule.getSlotMinutes()));
+                
+                Schedule placement = findOptimalSchedule(request, candidateIndex,
+                                                         getAvailableDaysForSection(request.getSection()),
+                                                         bellSchedule, occupancy, sectionDaySubjects, SolverTrace.DISABLED, probes);
+                if (placement != null) {
+                    schedule.setDayOfWeek(placement.getDayOfWeek());
+                    schedule.setStartTime(placement.getStartTime());
+                    schedule.setEndTime(placement.getEndTime());
+                    schedule.setTeacher(placement.getTeacher());
+                    schedule.setClassroom(placement.getClassroom());
+                    schedule.setNotes(placement.getNotes());
+                    markConsecutiveSlotsAsUsed(schedule, request.getConsecutiveHours(), bellSchedule, occupancy,
+                                               SolverTrace.DISABLED);
+                    sectionDaySubjects.computeIfAbsent(schedule.getSection().getId() + "-" + schedule.getDayOfWeek(), k -> new HashSet<>())
+                                     .add(schedule.getSubject().getName());
+                    rescheduled++;
+                } else {
+                    schedule.setStatus(ScheduleStatus.CANCELLED);
+                    result.addWarning(String.format("Could not re-place %s - %s (%s %s-%s); marked as cancelled",
+                        schedule.getSection().getSectionName(), schedule.getSubject().getName(),
+                        schedule.getDayOfWeek(), schedule.getStartTime(), schedule.getEndTime()));
+                }
+                changed.add(schedule);
+            }
+            
+            List<Schedule> saved = changed.isEmpty() ? changed : scheduleRepository.saveAll(changed);
+            eventPublisher.publishEvent(ScheduleChangedEvent.saved(saved));
+            solverMetrics.candidatesProbed(probes.sum());
+            solverMetrics.runFinished(rescheduled, affected.size() - rescheduled);
+            solverMetrics.endPhase(phase, SolverMetrics.PHASE_RESCHEDULE);
+            
+            result.setSchedules(saved);
+            result.setSuccess(true);
+            result.setMessage(String.format("Re-placed %d of %d affected schedule entries", rescheduled, affected.size()));
+            
+            Map<String, Object> statistics = new HashMap<>();
+            statistics.put("pinnedSchedules", pinned.size());
+            statistics.put("affectedSchedules", affected.size());
+            statistics.put("rescheduled", rescheduled);
+            statistics.put("cancelled", affected.size() - rescheduled);
+            statistics.put("elapsedMs", System.currentTimeMillis() - startedAt);
+            result.setStatistics(statistics);
+            
+        } catch (Exception e) {
+            result.setSuccess(false);
+            result.setMessage("Failed to reschedule: " + e.getMessage());
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Check a stored row against the current teacher, classroom, section and bell schedule
+     */
+    private boolean isPlacementStillValid(Schedule schedule, BellSchedule bellSchedule) {
+        Teacher teacher = schedule.getTeacher();
+        Classroom classroom = schedule.getClassroom();
+        Section section = schedule.getSection();
+        Subject subject = schedule.getSubject();
+        DayOfWeek day = schedule.getDayOfWeek();
+        
+        if (teacher.getSubjects() == null || !teacher.getSubjects().contains(subject.getName())) {
+            return false;
+        }
+        if (teacher.getAvailableDays() == null || !teacher.getAvailableDays().contains(day) ||
+            schedule.getStartTime().isBefore(teacher.getAvailableStartTime()) ||
+            schedule.getEndTime().isAfter(teacher.getAvailableEndTime())) {
+            return false;
+        }
+        if (classroom.getCapacity() < section.getStudentCount() ||
+            !(classroom.getRoomType().equals(subject.getRequiredRoomType()) || "Any".equals(subject.getRequiredRoomType()))) {
+            return false;
+        }
+        if (!getAvailableDaysForSection(section).contains(day)) {
+            return false;
+        }
+        
+        int startSlot = bellSchedule.slotIndexOf(schedule.getStartTime());
+        int endSlot = bellSchedule.slotIndexOf(schedule.getEndTime());
+        return startSlot >= 0 && endSlot > startSlot && bellSchedule.canStart(startSlot, endSlot - startSlot);
+    }
+    
     /**
      * Validate that all prerequisites are met for scheduling
      */
@@ -124,7 +558,8 @@ public class SchedulingService {
      * Splits duration into combinations of 1-hour (4 blocks) and 1.5-hour (6 blocks) schedules
      * Example: 3 hours = 12 blocks → 3 × 1 hour = 3 schedules
      */
-    private List<SchedulingRequest> generateSchedulingRequests(List<Section> sections, List<Subject> subjects) {
+    List<SchedulingRequest> generateSchedulingRequests(List<Section> sections, List<Subject> subjects,
+                                                       SolverTrace trace) {
         List<SchedulingRequest> requests = new ArrayList<>();
         
         for (Section section : sections) {
@@ -136,14 +571,9 @@ public class SchedulingService {
                 int durationInHours = subject.getDurationPerWeek();
                 int durationInBlocks = durationInHours * 4;
                 
-                System.out.println("📚 Subject: " + subject.getName() + 
-                                 " - Duration: " + durationInHours + " hours = " + durationInBlocks + " blocks (15-min each)");
-                
                 // Split duration into combinations of 1-hour and 1.5-hour schedules
                 List<Integer> scheduleBlocks = splitDurationIntoScheduleBlocks(durationInBlocks);
                 
-                System.out.println("📋 Split into " + scheduleBlocks.size() + " schedule(s): " + scheduleBlocks);
-                
                 int scheduleIndex = 0;
                 // Store scheduleBlocks for validation later
                 final List<Integer> finalScheduleBlocks = scheduleBlocks;
@@ -157,16 +587,8 @@ public class SchedulingService {
                     request.setDurationIndex(scheduleIndex++); // Track which schedule this is (0, 1, 2, etc.)
                     request.setConsecutiveHours(blocks); // Number of 15-minute blocks for this schedule (4 = 1 hour, 6 = 1.5 hours, 2 = 30 min, 3 = 45 min)
                     
-                    // Validate request was created correctly
-                    if (request.getConsecutiveHours() == null || request.getConsecutiveHours() != blocks) {
-                        System.out.println("❌ ERROR: Request consecutiveHours mismatch! Expected " + blocks + ", got " + request.getConsecutiveHours());
-                    }
-                    
-                    System.out.println("📝 Created request " + request.getDurationIndex() + 
-                                     " for " + subject.getName() + 
-                                     " with " + blocks + " consecutive blocks (" + 
-                                     (blocks == 1 ? "15 min" : blocks == 2 ? "30 min" : blocks == 3 ? "45 min" : blocks == 4 ? "1 hour" : blocks == 6 ? "1.5 hours" : (blocks * 15) + " minutes") + ")" +
-                                     " [consecutiveHours=" + request.getConsecutiveHours() + "]");
+                    trace.record(SolverTrace.Event.REQUEST_CREATED,
+                                 section.getId(), subject.getId(), blocks, request.getDurationIndex());
                     
                     requests.add(request);
                 }
@@ -174,22 +596,13 @@ public class SchedulingService {
                 // Verify total blocks created matches expected
                 int totalBlocksCreated = scheduleBlocks.stream().mapToInt(Integer::intValue).sum();
                 if (totalBlocksCreated != durationInBlocks) {
-                    System.out.println("❌ ERROR: Total blocks mismatch! Expected " + durationInBlocks + ", created " + totalBlocksCreated);
-                } else {
-                    System.out.println("✅ Total blocks verified: " + totalBlocksCreated + " blocks = " + (totalBlocksCreated * 0.25) + " hours");
+                    trace.record(SolverTrace.Event.BLOCK_SPLIT_MISMATCH, subject.getId(), durationInBlocks, totalBlocksCreated);
                 }
             }
         }
         
         // Sort by priority (higher priority first), then by block count (more blocks first)
-        requests.sort((r1, r2) -> {
-            int priorityComparison = Integer.compare(r2.getPriority(), r1.getPriority());
-            if (priorityComparison != 0) {
-                return priorityComparison;
-            }
-            // If same priority, schedule longer blocks first
-            return Integer.compare(r2.getConsecutiveHours(), r1.getConsecutiveHours());
-        });
+        requests.sort(REQUEST_ORDER);
         
         return requests;
     }
@@ -207,8 +620,6 @@ public class SchedulingService {
         List<Integer> result = new ArrayList<>();
         int remaining = totalBlocks;
         
-        System.out.println("🔀 Splitting " + totalBlocks + " blocks into schedules...");
-        
         // Special case: 12 blocks (3 hours) → create 3 × 1 hour schedules
         if (totalBlocks == 12) {
             // For exactly 12 blocks (3 hours), create 3 × 1 hour schedules
@@ -216,7 +627,6 @@ public class SchedulingService {
             result.add(4); // 1 hour (4 blocks)
             result.add(4); // 1 hour (4 blocks)
             // Total: 12 blocks = 3 hours exactly, 3 schedules
-            System.out.println("   Result: " + result + " (3 × 1 hour = 12 blocks = 3 hours)");
             return result;
         }
         
@@ -284,104 +694,64 @@ public class SchedulingService {
             }
         }
         
-        System.out.println("   Result: " + result + " (total blocks: " + result.stream().mapToInt(Integer::intValue).sum() + ")");
         return result;
     }
     
     /**
      * Advanced constraint satisfaction scheduling algorithm with same-day subject conflict prevention
      */
-    private List<Schedule> constraintSatisfactionScheduling(List<SchedulingRequest> requests, 
-                                                          List<Teacher> teachers, List<Classroom> classrooms) {
+    List<Schedule> constraintSatisfactionScheduling(List<SchedulingRequest> requests, 
+                                                  List<Teacher> teachers, List<Classroom> classrooms,
+                                                  BellSchedule bellSchedule, SolverProgress progress,
+                                                  SolverTrace trace) {
         List<Schedule> schedules = new ArrayList<>();
-        Set<String> usedSlots = new HashSet<>();
+        
+        // Occupancy bitmasks per teacher, classroom and section for each day
+        Set<Section> sections = new LinkedHashSet<>();
+        for (SchedulingRequest request : requests) {
+            sections.add(request.getSection());
+        }
+        OccupancyGrid occupancy = new OccupancyGrid(teachers, classrooms, sections);
+        CandidateIndex candidateIndex = new CandidateIndex(teachers, classrooms, bellSchedule, occupancy);
         
         // Track same-day subject conflicts for each section
         Map<String, Set<String>> sectionDaySubjects = new HashMap<>();
-        
-        // Define time slots and days
-        List<DayOfWeek> allDaysOfWeek = Arrays.asList(
-            DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, 
-            DayOfWeek.THURSDAY, DayOfWeek.FRIDAY
-        );
-        
-        // 15-minute time slots to support flexible scheduling
-        // Excludes break times: 9:00-9:15 (morning break), 12:15-13:15 (lunch), 16:15-16:30 (afternoon break)
-        List<TimeSlot> timeSlots = Arrays.asList(
-            new TimeSlot(LocalTime.of(8, 0), LocalTime.of(8, 15)),
-            new TimeSlot(LocalTime.of(8, 15), LocalTime.of(8, 30)),
-            new TimeSlot(LocalTime.of(8, 30), LocalTime.of(8, 45)),
-            new TimeSlot(LocalTime.of(8, 45), LocalTime.of(9, 0)),
-            // Break: 9:00-9:15 (excluded)
-            new TimeSlot(LocalTime.of(9, 15), LocalTime.of(9, 30)),
-            new TimeSlot(LocalTime.of(9, 30), LocalTime.of(9, 45)),
-            new TimeSlot(LocalTime.of(9, 45), LocalTime.of(10, 0)),
-            new TimeSlot(LocalTime.of(10, 0), LocalTime.of(10, 15)),
-            new TimeSlot(LocalTime.of(10, 15), LocalTime.of(10, 30)),
-            new TimeSlot(LocalTime.of(10, 30), LocalTime.of(10, 45)),
-            new TimeSlot(LocalTime.of(10, 45), LocalTime.of(11, 0)),
-            new TimeSlot(LocalTime.of(11, 0), LocalTime.of(11, 15)),
-            new TimeSlot(LocalTime.of(11, 15), LocalTime.of(11, 30)),
-            new TimeSlot(LocalTime.of(11, 30), LocalTime.of(11, 45)),
-            new TimeSlot(LocalTime.of(11, 45), LocalTime.of(12, 0)),
-            new TimeSlot(LocalTime.of(12, 0), LocalTime.of(12, 15)),
-            // Lunch: 12:15-13:15 (excluded)
-            new TimeSlot(LocalTime.of(13, 15), LocalTime.of(13, 30)),
-            new TimeSlot(LocalTime.of(13, 30), LocalTime.of(13, 45)),
-            new TimeSlot(LocalTime.of(13, 45), LocalTime.of(14, 0)),
-            new TimeSlot(LocalTime.of(14, 0), LocalTime.of(14, 15)),
-            new TimeSlot(LocalTime.of(14, 15), LocalTime.of(14, 30)),
-            new TimeSlot(LocalTime.of(14, 30), LocalTime.of(14, 45)),
-            new TimeSlot(LocalTime.of(14, 45), LocalTime.of(15, 0)),
-            new TimeSlot(LocalTime.of(15, 0), LocalTime.of(15, 15)),
-            new TimeSlot(LocalTime.of(15, 15), LocalTime.of(15, 30)),
-            new TimeSlot(LocalTime.of(15, 30), LocalTime.of(15, 45)),
-            new TimeSlot(LocalTime.of(15, 45), LocalTime.of(16, 0)),
-            new TimeSlot(LocalTime.of(16, 0), LocalTime.of(16, 15))
-            // Break: 16:15-16:30 (excluded)
-        );
+        LongAdder probes = new LongAdder();
         
         for (SchedulingRequest request : requests) {
+            checkCancelled(progress);
+            
             // Get available days based on section schedule pattern
             List<DayOfWeek> availableDays = getAvailableDaysForSection(request.getSection());
             
-            Schedule schedule = findOptimalSchedule(request, teachers, classrooms, 
-                                                 availableDays, timeSlots, usedSlots, sectionDaySubjects);
+            Schedule schedule = findOptimalSchedule(request, candidateIndex, availableDays, bellSchedule,
+                                                    occupancy, sectionDaySubjects, trace, probes);
             if (schedule != null) {
                 schedules.add(schedule);
+                progress.requestPlaced(schedules.size());
                 
                 // Mark all consecutive slots as used
                 int blocksToMark = request.getConsecutiveHours();
-                System.out.println("📍 Marking " + blocksToMark + " consecutive blocks as used for schedule " + 
-                                 schedule.getSubject().getName() + " at " + schedule.getStartTime() + "-" + schedule.getEndTime());
-                markConsecutiveSlotsAsUsed(schedule, blocksToMark, timeSlots, usedSlots);
+                markConsecutiveSlotsAsUsed(schedule, blocksToMark, bellSchedule, occupancy, trace);
                 
                 // Track subject for this section on this day to prevent duplicates across ALL days
                 String sectionDayKey = schedule.getSection().getId() + "-" + schedule.getDayOfWeek().toString();
                 sectionDaySubjects.computeIfAbsent(sectionDayKey, k -> new HashSet<>())
                                  .add(schedule.getSubject().getName());
                 
-                // Debug logging to verify same-day subject prevention
-                double totalMinutes = request.getConsecutiveHours() * 15.0;
-                String durationStr = totalMinutes >= 60 ? 
-                    String.format("%.1f hours", totalMinutes / 60.0) : 
-                    String.format("%.0f minutes", totalMinutes);
-                System.out.println("✅ Scheduled: " + schedule.getSection().getSectionName() + 
-                                 " - " + schedule.getSubject().getName() + 
-                                 " on " + schedule.getDayOfWeek() + 
-                                 " at " + schedule.getStartTime() + "-" + schedule.getEndTime() +
-                                 " (Schedule " + (request.getDurationIndex() + 1) + ", " + durationStr + ")");
+                if (trace.isEnabled(SolverTrace.Event.PLACED)) {
+                    trace.record(SolverTrace.Event.PLACED, request.getSection().getId(), request.getSubject().getId(),
+                                 schedule.getDayOfWeek().ordinal(), bellSchedule.slotIndexOf(schedule.getStartTime()),
+                                 blocksToMark, request.getDurationIndex());
+                }
             } else {
-                double totalMinutes = request.getConsecutiveHours() * 15.0;
-                String durationStr = totalMinutes >= 60 ? 
-                    String.format("%.1f hours", totalMinutes / 60.0) : 
-                    String.format("%.0f minutes", totalMinutes);
-                System.out.println("❌ Could not schedule: " + request.getSection().getSectionName() + 
-                                 " - " + request.getSubject().getName() + 
-                                 " (Schedule " + (request.getDurationIndex() + 1) + ", " + durationStr + " needed)");
+                trace.record(SolverTrace.Event.UNPLACED, request.getSection().getId(), request.getSubject().getId(),
+                             request.getConsecutiveHours(), request.getDurationIndex());
             }
         }
         
+        solverMetrics.candidatesProbed(probes.sum());
+        
         // Validate that no section has the same subject multiple times on the same day
         validateSameDaySubjectConstraints(schedules);
         
@@ -415,103 +785,45 @@ public class SchedulingService {
         }
     }
     
-    private boolean isScheduleConflictFree(Teacher teacher, Classroom classroom, SchedulingRequest request) {
-        // Check teacher conflicts
-        List<Schedule> teacherConflicts = scheduleRepository.findConflictingTeacherSchedules(
-            teacher,
-            request.getDate(),
-            request.getStartTime(),
-            request.getEndTime()
-        );
-        
-        if (!teacherConflicts.isEmpty()) {
-            return false;
-        }
-        
-        // Check classroom conflicts
-        List<Schedule> classroomConflicts = scheduleRepository.findConflictingClassroomSchedules(
-            classroom,
-            request.getDate(),
-            request.getStartTime(),
-            request.getEndTime()
-        );
-        
-        return classroomConflicts.isEmpty();
-    }
-    
-    private Schedule createSchedule(Teacher teacher, Classroom classroom, SchedulingRequest request) {
-        Schedule schedule = new Schedule();
-        schedule.setDate(request.getDate());
-        schedule.setStartTime(request.getStartTime());
-        schedule.setEndTime(request.getEndTime());
-        schedule.setDayOfWeek(request.getDayOfWeek());
-        schedule.setTeacher(teacher);
-        schedule.setClassroom(classroom);
-        schedule.setSubject(request.getSubject());
-        schedule.setNotes(request.getNotes());
-        schedule.setRecurring(request.isRecurring());
-        
-        return schedule;
-    }
-    
-    public List<Schedule> generateWeeklySchedule(List<SchedulingRequest> requests, LocalDate weekStart) {
-        List<Schedule> weeklySchedules = new ArrayList<>();
-        
-        for (int i = 0; i < 7; i++) {
-            LocalDate currentDate = weekStart.plusDays(i);
-            DayOfWeek dayOfWeek = DayOfWeek.values()[i];
-            
-            List<SchedulingRequest> dayRequests = requests.stream()
-                .filter(req -> req.getDayOfWeek() == dayOfWeek)
-                .toList();
-            
-            for (SchedulingRequest request : dayRequests) {
-                request.setDate(currentDate);
-                Schedule schedule = findBestSchedule(request);
-                if (schedule != null) {
-                    weeklySchedules.add(schedule);
-                    scheduleRepository.save(schedule);
-                }
-            }
-        }
-        
-        return weeklySchedules;
-    }
-    
+    /**
+     * Counts and total minutes per subject, teacher, classroom and day for schedules dated in the range.
+     * Each dimension is one GROUP BY query, so the cost does not depend on how many rows match.
+     */
     public Map<String, Object> getScheduleStatistics(LocalDate startDate, LocalDate endDate) {
-        List<Schedule> schedules = scheduleRepository.findSchedulesBetweenDates(startDate, endDate);
+        List<ScheduleAggregate> bySubject = scheduleRepository.aggregateBySubject(startDate, endDate);
+        List<ScheduleAggregate> byTeacher = scheduleRepository.aggregateByTeacher(startDate, endDate);
+        List<ScheduleAggregate> byClassroom = scheduleRepository.aggregateByClassroom(startDate, endDate);
+        List<ScheduleAggregate> byDay = new ArrayList<>(scheduleRepository.aggregateByDay(startDate, endDate));
+        byDay.sort(Comparator.comparing(day -> day.getName() != null ? DayOfWeek.valueOf(day.getName()).ordinal() : Integer.MAX_VALUE));
         
         Map<String, Object> statistics = new HashMap<>();
-        statistics.put("totalSchedules", schedules.size());
-        
-        Map<String, Long> subjectCount = schedules.stream()
-            .collect(java.util.stream.Collectors.groupingBy(
-                Schedule::getSubject,
-                java.util.stream.Collectors.counting()
-            ));
-        statistics.put("subjectDistribution", subjectCount);
-        
-        Map<String, Long> teacherUtilization = schedules.stream()
-            .collect(java.util.stream.Collectors.groupingBy(
-                s -> s.getTeacher().getFullName(),
-                java.util.stream.Collectors.counting()
-            ));
-        statistics.put("teacherUtilization", teacherUtilization);
-        
-        Map<String, Long> classroomUtilization = schedules.stream()
-            .collect(java.util.stream.Collectors.groupingBy(
-                s -> s.getClassroom().getRoomName(),
-                java.util.stream.Collectors.counting()
-            ));
-        statistics.put("classroomUtilization", classroomUtilization);
-        
+        statistics.put("totalSchedules", byDay.stream().mapToLong(ScheduleAggregate::getCount).sum());
+        statistics.put("totalMinutes", byDay.stream().mapToLong(ScheduleAggregate::getTotalMinutes).sum());
+        
+        // Name -> count maps, as before
+        statistics.put("subjectDistribution", countsByName(bySubject));
+        statistics.put("teacherUtilization", countsByName(byTeacher));
+        statistics.put("classroomUtilization", countsByName(byClassroom));
+        
+        statistics.put("subjects", bySubject);
+        statistics.put("teachers", byTeacher);
+        statistics.put("classrooms", byClassroom);
+        statistics.put("days", byDay);
         return statistics;
     }
     
+    private static Map<String, Long> countsByName(List<ScheduleAggregate> aggregates) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (ScheduleAggregate aggregate : aggregates) {
+            counts.merge(aggregate.getName(), aggregate.getCount(), Long::sum);
+        }
+        return counts;
+    }
+    
     /**
      * Get available days for a section based on its schedule pattern
      */
-    private List<DayOfWeek> getAvailableDaysForSection(Section section) {
+    static List<DayOfWeek> getAvailableDaysForSection(Section section) {
         if (section.getSchedulePattern() == null) {
             return Arrays.asList(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.FRIDAY); // Default to MWF
         }
@@ -529,36 +841,27 @@ public class SchedulingService {
     /**
      * Find optimal schedule for a request using advanced algorithms with same-day conflict prevention
      */
-    private Schedule findOptimalSchedule(SchedulingRequest request, List<Teacher> teachers, 
-                                       List<Classroom> classrooms, List<DayOfWeek> daysOfWeek,
-                                       List<TimeSlot> timeSlots, Set<String> usedSlots,
-                                       Map<String, Set<String>> sectionDaySubjects) {
-        
-        // Find suitable teachers for this subject
-        List<Teacher> suitableTeachers = teachers.stream()
-            .filter(teacher -> {
-                if (teacher.getSubjects() != null && !teacher.getSubjects().isEmpty()) {
-                    return teacher.getSubjects().contains(request.getSubject().getName());
-                }
-                return false;
-            })
-            .collect(Collectors.toList());
-        
-        if (suitableTeachers.isEmpty()) {
+    Schedule findOptimalSchedule(SchedulingRequest request, CandidateIndex candidateIndex,
+                                 List<DayOfWeek> daysOfWeek, BellSchedule bellSchedule, OccupancyGrid occupancy,
+                                 Map<String, Set<String>> sectionDaySubjects, SolverTrace trace,
+                                 LongAdder probes) {
+        
+        // Qualified teachers and large enough classrooms of the right type come straight from the index
+        long[] teacherBits = candidateIndex.teachersFor(request.getSubject().getName());
+        if (CandidateIndex.isEmpty(teacherBits)) {
             return null;
         }
         
-        // Find suitable classrooms
-        List<Classroom> suitableClassrooms = classrooms.stream()
-            .filter(classroom -> classroom.getCapacity() >= request.getRequiredCapacity())
-            .filter(classroom -> classroom.getRoomType().equals(request.getRoomType()) || 
-                                request.getRoomType().equals("Any"))
-            .collect(Collectors.toList());
-        
-        if (suitableClassrooms.isEmpty()) {
+        CandidateIndex.RoomGroup rooms = candidateIndex.roomsFor(request.getRoomType());
+        int firstRoom = rooms.firstWithCapacity(request.getRequiredCapacity());
+        if (firstRoom == rooms.size()) {
             return null;
         }
         
+        int sectionIndex = occupancy.sectionIndex(request.getSection());
+        int numBlocks = request.getConsecutiveHours();
+        long startSlots = bellSchedule.getRunStarts(numBlocks);
+        
         // Try to find the best combination, looking for consecutive slots for multi-hour subjects
         for (DayOfWeek day : daysOfWeek) {
             // Check if this section already has this subject on this day (prevent same subject multiple times)
@@ -567,130 +870,51 @@ public class SchedulingService {
             
             if (subjectsOnThisDay != null && subjectsOnThisDay.contains(request.getSubject().getName())) {
                 // This section already has this subject on this day, skip to next day
-                System.out.println("⏭️ Skipping " + day + " - " + request.getSection().getSectionName() + 
-                                 " already has " + request.getSubject().getName() + " on this day");
+                trace.record(SolverTrace.Event.SAME_SUBJECT_SKIPPED,
+                             request.getSection().getId(), request.getSubject().getId(), day.ordinal());
                 continue;
             }
             
-            for (int slotIndex = 0; slotIndex < timeSlots.size(); slotIndex++) {
-                TimeSlot timeSlot = timeSlots.get(slotIndex);
+            // Only slots where the whole block fits before the end of the day without crossing a break
+            for (long candidates = startSlots; candidates != 0; candidates &= candidates - 1) {
+                int slotIndex = Long.numberOfTrailingZeros(candidates);
+                long blockMask = OccupancyGrid.blockMask(slotIndex, numBlocks);
+                probes.increment();
                 
-                // Check if we have enough consecutive slots for multi-block schedules (1 hour = 4 blocks, 1.5 hours = 6 blocks)
-                if (request.getConsecutiveHours() > 1) {
-                    if (slotIndex + request.getConsecutiveHours() > timeSlots.size()) {
-                        continue; // Not enough slots remaining
-                    }
-                    
-                    // Check if all consecutive slots are available
-                    if (!areConsecutiveSlotsAvailable(day, slotIndex, request.getConsecutiveHours(), 
-                                                    suitableTeachers, suitableClassrooms, usedSlots)) {
-                        continue;
-                    }
+                // The section itself cannot attend two lessons at once
+                if (!occupancy.isSectionFree(sectionIndex, day, blockMask)) {
+                    continue;
                 }
                 
-                for (Teacher teacher : suitableTeachers) {
-                    // Check if teacher is available for all consecutive blocks
-                    if (!isTeacherAvailableForConsecutiveHours(teacher, day, slotIndex, 
-                                                             request.getConsecutiveHours(), timeSlots)) {
-                        continue;
-                    }
-                    
-                    for (Classroom classroom : suitableClassrooms) {
-                        // Check if ALL consecutive slots are available for this teacher-classroom combination
-                        boolean allSlotsAvailable = true;
-                        for (int i = 0; i < request.getConsecutiveHours(); i++) {
-                            TimeSlot checkSlot = timeSlots.get(slotIndex + i);
-                            String checkSlotKey = generateSlotKey(day, checkSlot, teacher, classroom);
-                            if (usedSlots.contains(checkSlotKey)) {
-                                allSlotsAvailable = false;
-                                break;
-                            }
+                // Check if all consecutive slots are available
+                if (!areConsecutiveSlotsAvailable(day, blockMask, teacherBits, candidateIndex, rooms, firstRoom, occupancy)) {
+                    continue;
+                }
+                
+                for (int word = 0; word < teacherBits.length; word++) {
+                    for (long bits = teacherBits[word]; bits != 0; bits &= bits - 1) {
+                        int t = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                        if (!occupancy.isTeacherFree(candidateIndex.teacherGridIndex(t), day, blockMask)) {
+                            continue;
                         }
                         
-                        // Check if any of the slots are during break time
-                        boolean hasBreakTime = false;
-                        for (int i = 0; i < request.getConsecutiveHours(); i++) {
-                            TimeSlot checkSlot = timeSlots.get(slotIndex + i);
-                            if (isBreakTime(checkSlot.getStartTime(), checkSlot.getEndTime())) {
-                                hasBreakTime = true;
-                                break;
-                            }
+                        // Check if teacher is available for all consecutive blocks
+                        if (!candidateIndex.isTeacherAvailable(t, day, blockMask)) {
+                            continue;
                         }
+                        Teacher teacher = candidateIndex.teacher(t);
                         
-                        if (allSlotsAvailable && !hasBreakTime) {
-                            // Create schedule spanning the required number of consecutive blocks
-                            Schedule schedule = new Schedule();
-                            schedule.setDate(LocalDate.now()); // Use current date as base
-                            schedule.setStartTime(timeSlot.getStartTime());
-                            
-                            // Calculate end time based on number of consecutive 15-minute blocks
-                            Integer numBlocks = request.getConsecutiveHours();
-                            if (numBlocks == null) {
-                                System.out.println("❌ ERROR: consecutiveHours is null! Defaulting to 1 block");
-                                numBlocks = 1;
-                            }
-                            
-                            System.out.println("🔧 Creating schedule with " + numBlocks + " consecutive blocks (15-min each)");
-                            System.out.println("   Slot index: " + slotIndex + ", Total slots: " + timeSlots.size());
-                            
-                            if (numBlocks > 1) {
-                                // Validate we have enough slots
-                                if (slotIndex + numBlocks - 1 >= timeSlots.size()) {
-                                    System.out.println("❌ ERROR: Not enough slots! Need " + numBlocks + " blocks starting at index " + slotIndex);
-                                    continue; // Skip this combination
-                                }
-                                TimeSlot lastSlot = timeSlots.get(slotIndex + numBlocks - 1);
-                                schedule.setEndTime(lastSlot.getEndTime());
-                                System.out.println("   Start: " + timeSlot.getStartTime() + ", End: " + lastSlot.getEndTime() + 
-                                                 " (" + numBlocks + " blocks = " + (numBlocks * 15) + " minutes)");
-                            } else {
-                                schedule.setEndTime(timeSlot.getEndTime()); // Single 15-minute block
-                                System.out.println("   Start: " + timeSlot.getStartTime() + ", End: " + timeSlot.getEndTime() + 
-                                                 " (1 block = 15 minutes)");
-                            }
-                            
-                            schedule.setDayOfWeek(day);
-                            schedule.setTeacher(teacher);
-                            schedule.setClassroom(classroom);
-                            schedule.setSection(request.getSection());
-                            schedule.setSubject(request.getSubject());
-                            schedule.setDurationIndex(request.getDurationIndex()); // Track which schedule this is (0, 1, 2, etc.)
-                            schedule.setRecurring(true);
-                            schedule.setStatus(ScheduleStatus.SCHEDULED);
-                            
-                            // Validate the schedule duration matches the request
-                            long actualDurationMinutes = java.time.Duration.between(schedule.getStartTime(), schedule.getEndTime()).toMinutes();
-                            long expectedDurationMinutes = request.getConsecutiveHours() * 15L;
-                            
-                            if (actualDurationMinutes != expectedDurationMinutes) {
-                                System.out.println("⚠️ ERROR: Schedule duration mismatch!");
-                                System.out.println("   Expected: " + expectedDurationMinutes + " minutes (" + request.getConsecutiveHours() + " blocks)");
-                                System.out.println("   Actual: " + actualDurationMinutes + " minutes");
-                                System.out.println("   Start: " + schedule.getStartTime() + ", End: " + schedule.getEndTime());
-                                // Fix it - recalculate end time
-                                if (numBlocks > 1 && slotIndex + numBlocks - 1 < timeSlots.size()) {
-                                    TimeSlot correctLastSlot = timeSlots.get(slotIndex + numBlocks - 1);
-                                    schedule.setEndTime(correctLastSlot.getEndTime());
-                                    System.out.println("   ✅ Fixed end time to: " + correctLastSlot.getEndTime());
-                                }
-                            } else {
-                                System.out.println("✅ Schedule duration validated: " + actualDurationMinutes + " minutes = " + 
-                                                 (actualDurationMinutes / 60.0) + " hours");
+                        // Smallest free classroom that fits, since rooms are ordered by capacity
+                        for (int c = firstRoom; c < rooms.size(); c++) {
+                            if (!occupancy.isClassroomFree(rooms.gridIndex(c), day, blockMask)) {
+                                continue;
                             }
+                            Classroom classroom = rooms.classroom(c);
                             
-                            // Create notes showing the actual duration
-                            double totalMinutes = request.getConsecutiveHours() * 15.0;
-                            String durationStr = totalMinutes >= 60 ? 
-                                String.format("%.1f hours", totalMinutes / 60.0) : 
-                                String.format("%.0f minutes", totalMinutes);
-                            schedule.setNotes(String.format("Auto-generated: %s - %s (Schedule %d, %s: %s-%s)", 
-                                request.getSection().getSectionName(),
-                                request.getSubject().getName(),
-                                request.getDurationIndex() + 1,
-                                durationStr,
-                                schedule.getStartTime(),
-                                schedule.getEndTime()));
+                            trace.record(SolverTrace.Event.CANDIDATE_FOUND, request.getSection().getId(), request.getSubject().getId(),
+                                         day.ordinal(), slotIndex, teacher.getId(), classroom.getId());
                             
+                            Schedule schedule = buildSchedule(request, day, slotIndex, teacher, classroom, bellSchedule);
                             return schedule;
                         }
                     }
@@ -701,194 +925,132 @@ public class SchedulingService {
         return null;
     }
     
-    private boolean isTeacherAvailable(Teacher teacher, DayOfWeek day, TimeSlot timeSlot) {
-        return teacher.getAvailableDays().contains(day) &&
-               teacher.getAvailableStartTime().compareTo(timeSlot.getStartTime()) <= 0 &&
-               teacher.getAvailableEndTime().compareTo(timeSlot.getEndTime()) >= 0;
+    /**
+     * Create a schedule entry spanning the request's consecutive blocks from {@code startSlot}
+     */
+    private Schedule buildSchedule(SchedulingRequest request, DayOfWeek day, int startSlot,
+                                   Teacher teacher, Classroom classroom, BellSchedule bellSchedule) {
+        int numBlocks = request.getConsecutiveHours();
+        
+        Schedule schedule = new Schedule();
+        schedule.setDate(LocalDate.now()); // Use current date as base
+        schedule.setStartTime(bellSchedule.getSlotStart(startSlot));
+        schedule.setEndTime(bellSchedule.getSlotEnd(startSlot + numBlocks - 1));
+        schedule.setDayOfWeek(day);
+        schedule.setTeacher(teacher);
+        schedule.setClassroom(classroom);
+        schedule.setSection(request.getSection());
+        schedule.setSubject(request.getSubject());
+        schedule.setDurationIndex(request.getDurationIndex()); // Track which schedule this is (0, 1, 2, etc.)
+        schedule.setRecurring(true);
+        schedule.setStatus(ScheduleStatus.SCHEDULED);
+        
+        // Create notes showing the actual duration
+        schedule.setNotes(autoGeneratedNotes(schedule));
+        
+        return schedule;
     }
     
     /**
-     * Check if consecutive slots are available for scheduling
+     * Notes for a generated schedule entry, showing its actual duration and time
      */
-    private boolean areConsecutiveSlotsAvailable(DayOfWeek day, int startSlotIndex, int consecutiveHours,
-                                               List<Teacher> suitableTeachers, List<Classroom> suitableClassrooms,
-                                               Set<String> usedSlots) {
-        // 15-minute time slots to support flexible scheduling
-        List<TimeSlot> timeSlots = Arrays.asList(
-            new TimeSlot(LocalTime.of(8, 0), LocalTime.of(8, 15)),
-            new TimeSlot(LocalTime.of(8, 15), LocalTime.of(8, 30)),
-            new TimeSlot(LocalTime.of(8, 30), LocalTime.of(8, 45)),
-            new TimeSlot(LocalTime.of(8, 45), LocalTime.of(9, 0)),
-            new TimeSlot(LocalTime.of(9, 0), LocalTime.of(9, 15)),
-            new TimeSlot(LocalTime.of(9, 15), LocalTime.of(9, 30)),
-            new TimeSlot(LocalTime.of(9, 30), LocalTime.of(9, 45)),
-            new TimeSlot(LocalTime.of(9, 45), LocalTime.of(10, 0)),
-            new TimeSlot(LocalTime.of(10, 0), LocalTime.of(10, 15)),
-            new TimeSlot(LocalTime.of(10, 15), LocalTime.of(10, 30)),
-            new TimeSlot(LocalTime.of(10, 30), LocalTime.of(10, 45)),
-            new TimeSlot(LocalTime.of(10, 45), LocalTime.of(11, 0)),
-            new TimeSlot(LocalTime.of(11, 0), LocalTime.of(11, 15)),
-            new TimeSlot(LocalTime.of(11, 15), LocalTime.of(11, 30)),
-            new TimeSlot(LocalTime.of(11, 30), LocalTime.of(11, 45)),
-            new TimeSlot(LocalTime.of(11, 45), LocalTime.of(12, 0)),
-            new TimeSlot(LocalTime.of(13, 0), LocalTime.of(13, 15)),
-            new TimeSlot(LocalTime.of(13, 15), LocalTime.of(13, 30)),
-            new TimeSlot(LocalTime.of(13, 30), LocalTime.of(13, 45)),
-            new TimeSlot(LocalTime.of(13, 45), LocalTime.of(14, 0)),
-            new TimeSlot(LocalTime.of(14, 0), LocalTime.of(14, 15)),
-            new TimeSlot(LocalTime.of(14, 15), LocalTime.of(14, 30)),
-            new TimeSlot(LocalTime.of(14, 30), LocalTime.of(14, 45)),
-            new TimeSlot(LocalTime.of(14, 45), LocalTime.of(15, 0)),
-            new TimeSlot(LocalTime.of(15, 0), LocalTime.of(15, 15)),
-            new TimeSlot(LocalTime.of(15, 15), LocalTime.of(15, 30)),
-            new TimeSlot(LocalTime.of(15, 30), LocalTime.of(15, 45)),
-            new TimeSlot(LocalTime.of(15, 45), LocalTime.of(16, 0))
-        );
-        
-        // Check if all consecutive slots are available for at least one teacher-classroom combination
-        for (Teacher teacher : suitableTeachers) {
-            for (Classroom classroom : suitableClassrooms) {
-                boolean allSlotsAvailable = true;
-                
-                for (int i = 0; i < consecutiveHours; i++) {
-                    TimeSlot slot = timeSlots.get(startSlotIndex + i);
-                    String slotKey = generateSlotKey(day, slot, teacher, classroom);
-                    
-                    if (usedSlots.contains(slotKey)) {
-                        allSlotsAvailable = false;
-                        break;
-                    }
-                }
-                
-                if (allSlotsAvailable) {
-                    return true;
-                }
-            }
-        }
-        
-        return false;
+    static String autoGeneratedNotes(Schedule schedule) {
+        double totalMinutes = java.time.Duration.between(schedule.getStartTime(), schedule.getEndTime()).toMinutes();
+        String durationStr = totalMinutes >= 60 ? 
+            String.format("%.1f hours", totalMinutes / 60.0) : 
+            String.format("%.0f minutes", totalMinutes);
+        return String.format("Auto-generated: %s - %s (Schedule %d, %s: %s-%s)", 
+            schedule.getSection().getSectionName(),
+            schedule.getSubject().getName(),
+            schedule.getDurationIndex() + 1,
+            durationStr,
+            schedule.getStartTime(),
+            schedule.getEndTime());
     }
     
     /**
-     * Check if a time slot overlaps with a break period
-     * Break periods: 9:00-9:15 (morning), 12:15-13:15 (lunch), 16:15-16:30 (afternoon)
+     * Check if consecutive slots are available for scheduling.
+     * Teachers and classrooms are booked independently, so it is enough that at least one
+     * suitable teacher and at least one suitable classroom are free for the whole block.
      */
-    private boolean isBreakTime(LocalTime startTime, LocalTime endTime) {
-        LocalTime morningBreakStart = LocalTime.of(9, 0);
-        LocalTime morningBreakEnd = LocalTime.of(9, 15);
-        LocalTime lunchStart = LocalTime.of(12, 15);
-        LocalTime lunchEnd = LocalTime.of(13, 15);
-        LocalTime afternoonBreakStart = LocalTime.of(16, 15);
-        LocalTime afternoonBreakEnd = LocalTime.of(16, 30);
-        
-        // Check if slot overlaps with morning break (9:00-9:15)
-        if (!startTime.isAfter(morningBreakEnd) && !endTime.isBefore(morningBreakStart)) {
-            return true;
+    private boolean areConsecutiveSlotsAvailable(DayOfWeek day, long blockMask, long[] teacherBits,
+                                               CandidateIndex candidateIndex, CandidateIndex.RoomGroup rooms,
+                                               int firstRoom, OccupancyGrid occupancy) {
+        boolean teacherFree = false;
+        for (int word = 0; word < teacherBits.length && !teacherFree; word++) {
+            for (long bits = teacherBits[word]; bits != 0; bits &= bits - 1) {
+                int t = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                if (occupancy.isTeacherFree(candidateIndex.teacherGridIndex(t), day, blockMask) &&
+                    candidateIndex.isTeacherAvailable(t, day, blockMask)) {
+                    teacherFree = true;
+                    break;
+                }
+            }
         }
         
-        // Check if slot overlaps with lunch (12:15-13:15)
-        if (!startTime.isAfter(lunchEnd) && !endTime.isBefore(lunchStart)) {
-            return true;
+        if (!teacherFree) {
+            return false;
         }
         
-        // Check if slot overlaps with afternoon break (16:15-16:30)
-        if (!startTime.isAfter(afternoonBreakEnd) && !endTime.isBefore(afternoonBreakStart)) {
-            return true;
+        for (int c = firstRoom; c < rooms.size(); c++) {
+            if (occupancy.isClassroomFree(rooms.gridIndex(c), day, blockMask)) {
+                return true;
+            }
         }
         
         return false;
     }
     
     /**
-     * Check if teacher is available for consecutive 15-minute blocks
-     */
-    private boolean isTeacherAvailableForConsecutiveHours(Teacher teacher, DayOfWeek day, int startSlotIndex,
-                                                        int consecutiveHours, List<TimeSlot> timeSlots) {
-        // Check if teacher is available for all consecutive blocks
-        for (int i = 0; i < consecutiveHours; i++) {
-            TimeSlot slot = timeSlots.get(startSlotIndex + i);
-            // Skip if this slot is during a break
-            if (isBreakTime(slot.getStartTime(), slot.getEndTime())) {
-                return false;
-            }
-            if (!isTeacherAvailable(teacher, day, slot)) {
-                return false;
-            }
-        }
-        return true;
-    }
-    
-    /**
-     * Mark all consecutive 15-minute slots as used
+     * Mark all consecutive slots of a schedule as used
      */
-    private void markConsecutiveSlotsAsUsed(Schedule schedule, int consecutiveHours, List<TimeSlot> timeSlots, Set<String> usedSlots) {
-        // Find the start slot index
-        int startSlotIndex = -1;
-        for (int i = 0; i < timeSlots.size(); i++) {
-            if (timeSlots.get(i).getStartTime().equals(schedule.getStartTime())) {
-                startSlotIndex = i;
-                break;
-            }
-        }
+    private void markConsecutiveSlotsAsUsed(Schedule schedule, int consecutiveHours, BellSchedule bellSchedule,
+                                            OccupancyGrid occupancy, SolverTrace trace) {
+        int startSlotIndex = bellSchedule.slotIndexOf(schedule.getStartTime());
         
         if (startSlotIndex == -1) {
-            System.out.println("⚠️ Warning: Could not find start slot for " + schedule.getStartTime());
+            trace.record(SolverTrace.Event.SLOT_NOT_ON_GRID, schedule.getSection().getId(), schedule.getSubject().getId(),
+                         schedule.getStartTime().toSecondOfDay() / 60);
             return;
         }
         
-        System.out.println("   Marking " + consecutiveHours + " slots starting at index " + startSlotIndex);
-        
-        // Mark all consecutive slots as used
-        for (int i = 0; i < consecutiveHours; i++) {
-            if (startSlotIndex + i >= timeSlots.size()) {
-                System.out.println("⚠️ Warning: Attempted to mark slot " + (startSlotIndex + i) + " but only " + timeSlots.size() + " slots available");
-                break;
-            }
-            TimeSlot slot = timeSlots.get(startSlotIndex + i);
-            String slotKey = generateSlotKey(schedule.getDayOfWeek(), slot, schedule.getTeacher(), schedule.getClassroom());
-            usedSlots.add(slotKey);
-            System.out.println("   ✓ Marked slot " + (i + 1) + "/" + consecutiveHours + ": " + slot.getStartTime() + "-" + slot.getEndTime());
+        if (startSlotIndex + consecutiveHours > bellSchedule.getSlotCount()) {
+            trace.record(SolverTrace.Event.BLOCK_PAST_END_OF_DAY, schedule.getSection().getId(), startSlotIndex,
+                         consecutiveHours, bellSchedule.getSlotCount());
+            consecutiveHours = bellSchedule.getSlotCount() - startSlotIndex;
         }
-    }
-    
-    private String generateSlotKey(Schedule schedule) {
-        return generateSlotKey(schedule.getDayOfWeek(), 
-                              new TimeSlot(schedule.getStartTime(), schedule.getEndTime()),
-                              schedule.getTeacher(), schedule.getClassroom());
-    }
-    
-    private String generateSlotKey(DayOfWeek day, TimeSlot timeSlot, Teacher teacher, Classroom classroom) {
-        return String.format("%s-%s-%s-%d-%d", 
-            day.toString(), 
-            timeSlot.getStartTime().toString(), 
-            timeSlot.getEndTime().toString(),
-            teacher.getId(), 
-            classroom.getId());
+        
+        // Mark all consecutive slots as used for the teacher, classroom and section at once
+        int teacherIndex = occupancy.teacherIndex(schedule.getTeacher());
+        int classroomIndex = occupancy.classroomIndex(schedule.getClassroom());
+        int sectionIndex = occupancy.sectionIndex(schedule.getSection());
+        occupancy.occupy(teacherIndex, classroomIndex, sectionIndex, schedule.getDayOfWeek(),
+                         OccupancyGrid.blockMask(startSlotIndex, consecutiveHours));
+        trace.record(SolverTrace.Event.SLOTS_MARKED, teacherIndex, classroomIndex, sectionIndex,
+                     schedule.getDayOfWeek().ordinal(), startSlotIndex, consecutiveHours);
     }
     
     /**
-     * Optimize workload distribution among teachers
+     * Optimize workload distribution among teachers.
+     * Runs a local search that moves lessons between qualified teachers (and, if needed, to other
+     * free slots) within the configured time budget. Schedules are updated in place; the returned
+     * map reports how much the teacher load spread narrowed.
      */
-    private List<Schedule> optimizeWorkloadDistribution(List<Schedule> schedules, List<Teacher> teachers) {
-        // Calculate current workload for each teacher
-        Map<Long, Integer> teacherWorkload = new HashMap<>();
-        for (Teacher teacher : teachers) {
-            teacherWorkload.put(teacher.getId(), 0);
+    private Map<String, Object> optimizeWorkloadDistribution(List<Schedule> schedules, List<Teacher> teachers,
+                                                             List<Classroom> classrooms, BellSchedule bellSchedule) {
+        WorkloadBalancer balancer = new WorkloadBalancer(schedules, teachers, classrooms, bellSchedule);
+        if (balanceTimeBudgetMillis > 0) {
+            balancer.balance(balanceTimeBudgetMillis);
+            validateSameDaySubjectConstraints(schedules);
         }
         
-        for (Schedule schedule : schedules) {
-            teacherWorkload.merge(schedule.getTeacher().getId(), 1, Integer::sum);
-        }
-        
-        // Try to balance workload by swapping schedules if possible
-        // This is a simplified version - in reality, you'd use more sophisticated algorithms
-        return schedules;
+        return balancer.toStatistics();
     }
     
     /**
      * Generate comprehensive statistics
      */
-    private Map<String, Object> generateStatistics(List<Schedule> schedules) {
+    Map<String, Object> generateStatistics(List<Schedule> schedules) {
         Map<String, Object> statistics = new HashMap<>();
         
         statistics.put("totalSchedules", schedules.size());
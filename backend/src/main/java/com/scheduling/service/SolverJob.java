@@ -0,0 +1,183 @@
+package com.scheduling.service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A schedule generation submitted to run in the background.
+ * The solver reports progress through the {@link SolverProgress} callbacks; cancellation is
+ * cooperative and only takes effect at the solver's next check.
+ */
+public class SolverJob implements SolverProgress {
+    
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED
+    }
+    
+    private final String id;
+    private final int starts;
+    private final Instant submittedAt = Instant.now();
+    
+    private volatile Status status = Status.QUEUED;
+    private volatile boolean cancelRequested;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String message;
+    private volatile SchedulingResult result;
+    private volatile Future<?> future;
+    
+    private volatile int requestCount;
+    private volatile int runCount;
+    private final AtomicInteger completedRuns = new AtomicInteger();
+    private final AtomicInteger placed = new AtomicInteger();
+    private SolverRun bestRun;
+    
+    public SolverJob(String id, int starts) {
+        this.id = id;
+        this.starts = starts;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public int getStarts() {
+        return starts;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+    
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+    
+    public SchedulingResult getResult() {
+        return result;
+    }
+    
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED || status == Status.CANCELLED;
+    }
+    
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+    
+    /**
+     * Move a queued job to RUNNING; returns false if it was cancelled while waiting
+     */
+    synchronized boolean markRunning() {
+        if (status != Status.QUEUED) {
+            return false;
+        }
+        status = Status.RUNNING;
+        startedAt = Instant.now();
+        return true;
+    }
+    
+    synchronized void complete(SchedulingResult result) {
+        this.result = result;
+        this.message = result != null ? result.getMessage() : null;
+        // A cancel that arrives while the rows are being saved is too late: the rows are kept
+        if (result != null && result.isSuccess()) {
+            status = Status.COMPLETED;
+        } else {
+            status = cancelRequested ? Status.CANCELLED : Status.FAILED;
+        }
+        finishedAt = Instant.now();
+    }
+    
+    synchronized void fail(String message) {
+        this.message = message;
+        status = cancelRequested ? Status.CANCELLED : Status.FAILED;
+        finishedAt = Instant.now();
+    }
+    
+    /**
+     * Request cancellation. A queued job is cancelled at once, a running one stops at the
+     * solver's next check and nothing is saved. Once saving has started the job runs to the end
+     * and is reported COMPLETED.
+     */
+    synchronized void cancel() {
+        if (isFinished()) {
+            return;
+        }
+        cancelRequested = true;
+        if (status == Status.QUEUED) {
+            status = Status.CANCELLED;
+            message = "Cancelled before it started";
+            finishedAt = Instant.now();
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+    
+    // SolverProgress callbacks, invoked from solver threads
+    @Override
+    public void started(int requestCount, int runCount) {
+        this.requestCount = requestCount;
+        this.runCount = runCount;
+    }
+    
+    @Override
+    public void requestPlaced(int placedSoFar) {
+        placed.accumulateAndGet(placedSoFar, Math::max);
+    }
+    
+    @Override
+    public void runCompleted(SolverRun run) {
+        completedRuns.incrementAndGet();
+        synchronized (this) {
+            if (run.isBetterThan(bestRun)) {
+                bestRun = run;
+            }
+        }
+    }
+    
+    @Override
+    public boolean isCancelled() {
+        return cancelRequested;
+    }
+    
+    public synchronized Map<String, Object> toStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("id", id);
+        status.put("status", this.status);
+        status.put("starts", starts);
+        status.put("requestCount", requestCount);
+        status.put("runs", runCount);
+        status.put("completedRuns", completedRuns.get());
+        status.put("requestsPlaced", bestRun != null ? Math.max(bestRun.getPlacedCount(), placed.get()) : placed.get());
+        if (bestRun != null) {
+            status.put("bestRun", bestRun.getRunIndex());
+            status.put("bestPlaced", bestRun.getPlacedCount());
+            status.put("bestScore", bestRun.getSoftScore());
+        }
+        status.put("submittedAt", submittedAt.toString());
+        if (startedAt != null) {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            status.put("elapsedMs", end.toEpochMilli() - startedAt.toEpochMilli());
+        }
+        if (finishedAt != null) {
+            status.put("finishedAt", finishedAt.toString());
+        }
+        if (message != null) {
+            status.put("message", message);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,111 @@
+package com.scheduling.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs schedule generations in the background so HTTP threads are not held for the whole solve.
+ * Jobs go through a bounded executor: a fixed number of workers and a bounded queue, beyond
+ * which submissions are rejected. Finished jobs are kept for a while so their result can be fetched.
+ */
+@Service
+public class SolverJobService {
+    
+    @Autowired
+    private SchedulingService schedulingService;
+    
+    @Value("${scheduling.jobs.workers:2}")
+    private int workers;
+    
+    @Value("${scheduling.jobs.queue-capacity:16}")
+    private int queueCapacity;
+    
+    @Value("${scheduling.jobs.retention-minutes:60}")
+    private long retentionMinutes;
+    
+    private final Map<String, SolverJob> jobs = new ConcurrentHashMap<>();
+    
+    private ThreadPoolExecutor executor;
+    
+    @PostConstruct
+    void initExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "solver-job-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+    
+    @PreDestroy
+    void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Queue a generation with {@code starts} multi-start runs
+     *
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public SolverJob submit(int starts) {
+        purgeExpiredJobs();
+        
+        SolverJob job = new SolverJob(UUID.randomUUID().toString(), starts);
+        jobs.put(job.getId(), job);
+        try {
+            job.setFuture(executor.submit(() -> run(job)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        return job;
+    }
+    
+    public Optional<SolverJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+    
+    public Optional<SolverJob> cancel(String jobId) {
+        SolverJob job = jobs.get(jobId);
+        if (job != null) {
+            job.cancel();
+        }
+        return Optional.ofNullable(job);
+    }
+    
+    private void run(SolverJob job) {
+        if (!job.markRunning()) {
+            return;
+        }
+        
+        try {
+            // No transaction around the solve: it works on the detached reference data snapshot,
+            // and ScheduleBatchWriter opens its own transaction for the final insert
+            job.complete(schedulingService.generateOptimizedSchedule(job.getStarts(), job));
+        } catch (RuntimeException e) {
+            job.fail("Failed to generate schedule: " + e.getMessage());
+        }
+    }
+    
+    private void purgeExpiredJobs() {
+        Instant cutoff = Instant.now().minus(retentionMinutes, ChronoUnit.MINUTES);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+}
@@ -0,0 +1,103 @@
+package com.scheduling.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Micrometer meters for schedule generation, exposed through the actuator metrics endpoint.
+ * Each phase (load, requests, solve, balance, persist) is timed under {@code scheduling.phase}
+ * with a {@code phase} tag; the counters track the work done inside those phases.
+ */
+@Component
+public class SolverMetrics {
+    
+    public static final String PHASE_LOAD = "load";
+    public static final String PHASE_REQUESTS = "requests";
+    public static final String PHASE_SOLVE = "solve";
+    public static final String PHASE_BALANCE = "balance";
+    public static final String PHASE_PERSIST = "persist";
+    public static final String PHASE_RESCHEDULE = "reschedule";
+    
+    @Autowired
+    private MeterRegistry registry;
+    
+    private final Map<String, Timer> phaseTimers = new ConcurrentHashMap<>();
+    
+    private Counter requestsGenerated;
+    private Counter candidatesProbed;
+    private Counter searchNodes;
+    private Counter placements;
+    private Counter failures;
+    private Counter persistenceBatches;
+    
+    public SolverMetrics() {}
+    
+    /**
+     * Metrics bound to an explicit registry, for use outside the Spring context
+     */
+    SolverMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        registerMeters();
+    }
+    
+    @PostConstruct
+    void registerMeters() {
+        requestsGenerated = Counter.builder("scheduling.requests.generated")
+            .description("Scheduling requests created from sections and subjects")
+            .register(registry);
+        candidatesProbed = Counter.builder("scheduling.candidates.probed")
+            .description("Day/start slot candidates examined by the greedy placement")
+            .register(registry);
+        searchNodes = Counter.builder("scheduling.search.nodes")
+            .description("Nodes expanded by the backtracking search")
+            .register(registry);
+        placements = Counter.builder("scheduling.placements")
+            .description("Requests placed, summed over all solver runs")
+            .register(registry);
+        failures = Counter.builder("scheduling.placement.failures")
+            .description("Requests left unplaced, summed over all solver runs")
+            .register(registry);
+        persistenceBatches = Counter.builder("scheduling.persistence.batches")
+            .description("JDBC batches flushed while saving generated schedules")
+            .register(registry);
+    }
+    
+    public Timer.Sample startPhase() {
+        return Timer.start(registry);
+    }
+    
+    public void endPhase(Timer.Sample sample, String phase) {
+        sample.stop(phaseTimers.computeIfAbsent(phase, name -> Timer.builder("scheduling.phase")
+            .description("Time spent in each schedule generation phase")
+            .tag("phase", name)
+            .register(registry)));
+    }
+    
+    public void requestsGenerated(int count) {
+        requestsGenerated.increment(count);
+    }
+    
+    public void candidatesProbed(long count) {
+        candidatesProbed.increment(count);
+    }
+    
+    public void searchNodes(long count) {
+        searchNodes.increment(count);
+    }
+    
+    public void runFinished(int placed, int unplaced) {
+        placements.increment(placed);
+        failures.increment(unplaced);
+    }
+    
+    public void persistenceBatch() {
+        persistenceBatches.increment();
+    }
+}
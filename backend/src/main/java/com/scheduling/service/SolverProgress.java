@@ -0,0 +1,32 @@
+package com.scheduling.service;
+
+/**
+ * Progress and cancellation hook for a running schedule generation.
+ * Callbacks may arrive from several solver threads at once when multi-start is used.
+ */
+public interface SolverProgress {
+    
+    SolverProgress NONE = new SolverProgress() {};
+    
+    /**
+     * Called once the requests are known, before the first run starts
+     */
+    default void started(int requestCount, int runCount) {
+    }
+    
+    /**
+     * Called by the greedy pass each time it places a request, with the run's placed count so far
+     */
+    default void requestPlaced(int placedSoFar) {
+    }
+    
+    default void runCompleted(SolverRun run) {
+    }
+    
+    /**
+     * Checked between requests and search nodes; once true the generation stops without saving
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+}
@@ -0,0 +1,106 @@
+package com.scheduling.service;
+
+import com.scheduling.model.Schedule;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of one solver run: the placed schedules plus the numbers used to pick the best run
+ */
+public class SolverRun {
+    private final int runIndex;
+    private final long seed;
+    private final List<Schedule> schedules;
+    private final int requestCount;
+    private final double softScore;
+    private final long elapsedMillis;
+    private final Map<String, Object> details = new LinkedHashMap<>();
+    private SolverTrace trace = SolverTrace.DISABLED;
+    
+    public SolverRun(int runIndex, long seed, List<Schedule> schedules, int requestCount,
+                     double softScore, long elapsedMillis) {
+        this.runIndex = runIndex;
+        this.seed = seed;
+        this.schedules = schedules;
+        this.requestCount = requestCount;
+        this.softScore = softScore;
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    public int getRunIndex() {
+        return runIndex;
+    }
+    
+    public long getSeed() {
+        return seed;
+    }
+    
+    public List<Schedule> getSchedules() {
+        return schedules;
+    }
+    
+    public int getRequestCount() {
+        return requestCount;
+    }
+    
+    public int getPlacedCount() {
+        return schedules.size();
+    }
+    
+    public int getUnplacedCount() {
+        return requestCount - schedules.size();
+    }
+    
+    /**
+     * Soft penalty of the run (lower is better)
+     */
+    public double getSoftScore() {
+        return softScore;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    /**
+     * Extra per-run figures (e.g. search effort) included in the run statistics
+     */
+    public Map<String, Object> getDetails() {
+        return details;
+    }
+    
+    public SolverTrace getTrace() {
+        return trace;
+    }
+    
+    public void setTrace(SolverTrace trace) {
+        this.trace = trace;
+    }
+    
+    /**
+     * A run is better when it places more requests; ties go to the lower soft penalty
+     */
+    public boolean isBetterThan(SolverRun other) {
+        if (other == null) {
+            return true;
+        }
+        if (getPlacedCount() != other.getPlacedCount()) {
+            return getPlacedCount() > other.getPlacedCount();
+        }
+        return softScore < other.softScore;
+    }
+    
+    public Map<String, Object> toStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("run", runIndex);
+        statistics.put("seed", seed);
+        statistics.put("placed", getPlacedCount());
+        statistics.put("unplaced", getUnplacedCount());
+        statistics.put("softScore", softScore);
+        statistics.put("elapsedMs", elapsedMillis);
+        statistics.putAll(details);
+        return statistics;
+    }
+}
@@ -0,0 +1,142 @@
+package com.scheduling.service;
+
+import com.scheduling.model.DayOfWeek;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fixed-size ring buffer of solver events.
+ * Every event carries up to six primitive fields that are written into preallocated arrays, so
+ * recording never allocates; once the buffer is full the oldest events are overwritten. Events
+ * below the configured level return after a single compare, and a disabled trace owns no buffer.
+ * A trace has a single writer (one solver run); dump it after the run has finished.
+ */
+public class SolverTrace {
+    
+    public enum Level {
+        OFF,
+        WARN,
+        INFO,
+        DEBUG
+    }
+    
+    public enum Event {
+        REQUEST_CREATED(Level.DEBUG, "section", "subject", "blocks", "durationIndex"),
+        SAME_SUBJECT_SKIPPED(Level.DEBUG, "section", "subject", "day"),
+        CANDIDATE_FOUND(Level.DEBUG, "section", "subject", "day", "slot", "teacher", "classroom"),
+        PLACED(Level.INFO, "section", "subject", "day", "slot", "blocks", "durationIndex"),
+        UNPLACED(Level.INFO, "section", "subject", "blocks", "durationIndex"),
+        SLOTS_MARKED(Level.DEBUG, "teacher", "classroom", "section", "day", "slot", "blocks"),
+        BLOCK_SPLIT_MISMATCH(Level.WARN, "subject", "expectedBlocks", "createdBlocks"),
+        SLOT_NOT_ON_GRID(Level.WARN, "section", "subject", "startMinuteOfDay"),
+        BLOCK_PAST_END_OF_DAY(Level.WARN, "section", "slot", "blocks", "slotCount"),
+        SEARCH_FINISHED(Level.INFO, "placed", "nodes", "backtracks", "budgetExhausted", "elapsedMs");
+        
+        private final Level level;
+        private final String[] fieldNames;
+        
+        Event(Level level, String... fieldNames) {
+            this.level = level;
+            this.fieldNames = fieldNames;
+        }
+        
+        public Level getLevel() {
+            return level;
+        }
+    }
+    
+    public static final SolverTrace DISABLED = new SolverTrace(Level.OFF, 0);
+    
+    private static final int FIELDS = 6;
+    private static final Event[] EVENTS = Event.values();
+    private static final DayOfWeek[] WEEK = DayOfWeek.values();
+    
+    private final int threshold;
+    private final int mask;
+    private final byte[] types;
+    private final long[] times;
+    private final long[] fields;
+    private final long origin = System.nanoTime();
+    private long count;
+    
+    /**
+     * @param capacity number of events kept, rounded up to a power of two
+     */
+    public SolverTrace(Level level, int capacity) {
+        int size = level == Level.OFF || capacity <= 0 ? 0 : Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.threshold = size == 0 ? Level.OFF.ordinal() : level.ordinal();
+        this.mask = size - 1;
+        this.types = new byte[size];
+        this.times = new long[size];
+        this.fields = new long[size * FIELDS];
+    }
+    
+    public boolean isEnabled(Event event) {
+        return event.level.ordinal() <= threshold;
+    }
+    
+    public void record(Event event, long a, long b, long c) {
+        record(event, a, b, c, 0, 0, 0);
+    }
+    
+    public void record(Event event, long a, long b, long c, long d) {
+        record(event, a, b, c, d, 0, 0);
+    }
+    
+    public void record(Event event, long a, long b, long c, long d, long e) {
+        record(event, a, b, c, d, e, 0);
+    }
+    
+    public void record(Event event, long a, long b, long c, long d, long e, long f) {
+        if (event.level.ordinal() > threshold) {
+            return;
+        }
+        
+        int slot = (int) (count++ & mask);
+        types[slot] = (byte) event.ordinal();
+        times[slot] = System.nanoTime() - origin;
+        int base = slot * FIELDS;
+        fields[base] = a;
+        fields[base + 1] = b;
+        fields[base + 2] = c;
+        fields[base + 3] = d;
+        fields[base + 4] = e;
+        fields[base + 5] = f;
+    }
+    
+    /**
+     * Total number of events recorded, including the ones already overwritten
+     */
+    public long getCount() {
+        return count;
+    }
+    
+    /**
+     * The last {@code limit} events, oldest first. Formatting happens here, off the hot path.
+     */
+    public List<Map<String, Object>> lastEvents(int limit) {
+        long available = Math.min(count, types.length);
+        int size = (int) Math.min(available, Math.max(0, limit));
+        List<Map<String, Object>> events = new ArrayList<>(size);
+        
+        for (long seq = count - size; seq < count; seq++) {
+            int slot = (int) (seq & mask);
+            Event event = EVENTS[types[slot]];
+            
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("seq", seq);
+            entry.put("atMicros", times[slot] / 1_000);
+            entry.put("level", event.level);
+            entry.put("event", event);
+            for (int i = 0; i < event.fieldNames.length; i++) {
+                long value = fields[slot * FIELDS + i];
+                entry.put(event.fieldNames[i], "day".equals(event.fieldNames[i]) ? WEEK[(int) value] : value);
+            }
+            events.add(entry);
+        }
+        return events;
+    }
+}
@@ -0,0 +1,197 @@
+package com.scheduling.service;
+
+import com.scheduling.model.*;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Seeded generator of synthetic schools for load and scale testing.
+ * The same options and seed always produce the same school. Teachers and classrooms are sized
+ * from the weekly hours the sections need, so a school stays about as constrained at 10 sections
+ * as at 2,000; the knobs then tighten or loosen it.
+ */
+public class SyntheticSchoolGenerator {
+    
+    // name, code, hours per week, room type, priority; interleaved so any prefix mixes lectures and labs
+    private static final String[][] SUBJECT_CATALOG = {
+        {"Mathematics", "MATH", "4", "Lecture Room", "5"},
+        {"Chemistry", "CHEM", "2", "Chemistry Lab", "3"},
+        {"English", "ENG", "3", "Lecture Room", "4"},
+        {"Computer Science", "CS", "2", "Computer Lab", "3"},
+        {"Science", "SCI", "3", "Lecture Room", "4"},
+        {"Physical Education", "PE", "2", "Physical Education Area", "1"},
+        {"History", "HIST", "2", "Lecture Room", "2"},
+        {"Biology", "BIO", "2", "Biology Lab", "3"},
+        {"Filipino", "FIL", "3", "Lecture Room", "4"},
+        {"Physics", "PHYS", "2", "Physics Lab", "3"},
+        {"Values Education", "VE", "1", "Any", "1"},
+        {"Music and Arts", "MAPE", "1", "Any", "1"}
+    };
+    
+    public static final int MAX_SUBJECTS = SUBJECT_CATALOG.length;
+    
+    private static final String LECTURE_ROOM = "Lecture Room";
+    
+    public static class Options {
+        private int sections = 30;
+        private int subjects = 8;
+        private double qualificationDensity = 0.15;
+        private Map<String, Double> roomTypeRatios = new LinkedHashMap<>();
+        private double tthShare = 1.0 / 3;
+        private int teacherHoursPerWeek = 18;
+        private int roomHoursPerWeek = 24;
+        private boolean assignIds;
+        private long seed = 42L;
+        
+        public int getSections() { return sections; }
+        public Options setSections(int sections) { this.sections = sections; return this; }
+        
+        /** Number of subjects, taken from the front of the catalog (1 to {@link #MAX_SUBJECTS}) */
+        public int getSubjects() { return subjects; }
+        public Options setSubjects(int subjects) { this.subjects = subjects; return this; }
+        
+        /** Chance that a teacher is also qualified for each subject other than their main one */
+        public double getQualificationDensity() { return qualificationDensity; }
+        public Options setQualificationDensity(double qualificationDensity) { this.qualificationDensity = qualificationDensity; return this; }
+        
+        /**
+         * Relative weight of each room type in the room pool. Types without a weight get rooms
+         * in proportion to the hours that need them; every required type gets at least one room.
+         */
+        public Map<String, Double> getRoomTypeRatios() { return roomTypeRatios; }
+        public Options setRoomTypeRatios(Map<String, Double> roomTypeRatios) { this.roomTypeRatios = roomTypeRatios; return this; }
+        
+        /** Share of sections on the Tuesday/Thursday pattern; the rest are MWF */
+        public double getTthShare() { return tthShare; }
+        public Options setTthShare(double tthShare) { this.tthShare = tthShare; return this; }
+        
+        public int getTeacherHoursPerWeek() { return teacherHoursPerWeek; }
+        public Options setTeacherHoursPerWeek(int teacherHoursPerWeek) { this.teacherHoursPerWeek = teacherHoursPerWeek; return this; }
+        
+        public int getRoomHoursPerWeek() { return roomHoursPerWeek; }
+        public Options setRoomHoursPerWeek(int roomHoursPerWeek) { this.roomHoursPerWeek = roomHoursPerWeek; return this; }
+        
+        /** Give entities sequential ids, for use without a database */
+        public boolean isAssignIds() { return assignIds; }
+        public Options setAssignIds(boolean assignIds) { this.assignIds = assignIds; return this; }
+        
+        public long getSeed() { return seed; }
+        public Options setSeed(long seed) { this.seed = seed; return this; }
+    }
+    
+    public static class SyntheticSchool {
+        private final List<Subject> subjects = new ArrayList<>();
+        private final List<Section> sections = new ArrayList<>();
+        private final List<Teacher> teachers = new ArrayList<>();
+        private final List<Classroom> classrooms = new ArrayList<>();
+        
+        public List<Subject> getSubjects() { return subjects; }
+        public List<Section> getSections() { return sections; }
+        public List<Teacher> getTeachers() { return teachers; }
+        public List<Classroom> getClassrooms() { return classrooms; }
+    }
+    
+    public static SyntheticSchool generate(Options options) {
+        if (options.getSections() < 1 || options.getSubjects() < 1 || options.getSubjects() > MAX_SUBJECTS) {
+            throw new IllegalArgumentException("Need at least one section and 1 to " + MAX_SUBJECTS + " subjects");
+        }
+        
+        Random random = new Random(options.getSeed());
+        SyntheticSchool school = new SyntheticSchool();
+        long[] nextId = {1};
+        
+        for (int s = 0; s < options.getSubjects(); s++) {
+            String[] row = SUBJECT_CATALOG[s];
+            Subject subject = new Subject(row[0], row[1], Integer.parseInt(row[2]), row[3], Integer.parseInt(row[4]));
+            subject.setDescription("Synthetic subject");
+            if (options.isAssignIds()) {
+                subject.setId(nextId[0]++);
+            }
+            school.getSubjects().add(subject);
+        }
+        
+        // Spread TTH sections evenly instead of clustering them at the end
+        double tthCarry = 0;
+        for (int i = 0; i < options.getSections(); i++) {
+            tthCarry += options.getTthShare();
+            boolean tth = tthCarry >= 1;
+            if (tth) {
+                tthCarry -= 1;
+            }
+            Set<DayOfWeek> days = tth
+                ? EnumSet.of(DayOfWeek.TUESDAY, DayOfWeek.THURSDAY)
+                : EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.FRIDAY);
+            Section section = new Section("Section " + (i + 1), "Grade " + (7 + i % 6), 25 + random.nextInt(16),
+                                          days, tth ? SchedulePattern.TTH : SchedulePattern.MWF);
+            if (options.isAssignIds()) {
+                section.setId(nextId[0]++);
+            }
+            school.getSections().add(section);
+        }
+        
+        // Teachers per subject in proportion to the hours it needs, each with extra qualifications at the given density
+        Map<String, Integer> hoursByRoomType = new LinkedHashMap<>();
+        for (Subject subject : school.getSubjects()) {
+            int hours = options.getSections() * subject.getDurationPerWeek();
+            String roomType = "Any".equals(subject.getRequiredRoomType()) ? LECTURE_ROOM : subject.getRequiredRoomType();
+            hoursByRoomType.merge(roomType, hours, Integer::sum);
+            
+            int count = divideRoundingUp(hours, options.getTeacherHoursPerWeek());
+            for (int i = 0; i < count; i++) {
+                Set<String> qualified = new LinkedHashSet<>();
+                qualified.add(subject.getName());
+                for (Subject other : school.getSubjects()) {
+                    if (random.nextDouble() < options.getQualificationDensity()) {
+                        qualified.add(other.getName());
+                    }
+                }
+                
+                boolean morningOnly = random.nextInt(10) == 0;
+                String lastName = subject.getCode() + "-" + (i + 1);
+                Teacher teacher = new Teacher("Synthetic", lastName,
+                                              lastName.toLowerCase() + "@synthetic.example.com", qualified,
+                                              LocalTime.of(8, 0), morningOnly ? LocalTime.of(12, 15) : LocalTime.of(16, 30),
+                                              EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+                if (options.isAssignIds()) {
+                    teacher.setId(nextId[0]++);
+                }
+                school.getTeachers().add(teacher);
+            }
+        }
+        
+        int totalHours = hoursByRoomType.values().stream().mapToInt(Integer::intValue).sum();
+        int totalRooms = divideRoundingUp(totalHours, options.getRoomHoursPerWeek());
+        double totalWeight = 0;
+        for (Map.Entry<String, Integer> entry : hoursByRoomType.entrySet()) {
+            totalWeight += options.getRoomTypeRatios().getOrDefault(entry.getKey(), (double) entry.getValue() / totalHours);
+        }
+        
+        for (Map.Entry<String, Integer> entry : hoursByRoomType.entrySet()) {
+            String roomType = entry.getKey();
+            double weight = options.getRoomTypeRatios().getOrDefault(roomType, (double) entry.getValue() / totalHours);
+            int count = Math.max(1, (int) Math.round(totalRooms * weight / totalWeight));
+            for (int i = 0; i < count; i++) {
+                Classroom classroom = new Classroom(roomType + " " + (i + 1), roomType, 40 + random.nextInt(11),
+                                                    "Building " + (1 + i % 4), "Synthetic classroom");
+                if (options.isAssignIds()) {
+                    classroom.setId(nextId[0]++);
+                }
+                school.getClassrooms().add(classroom);
+            }
+        }
+        
+        return school;
+    }
+    
+    private static int divideRoundingUp(int dividend, int divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+}
@@ -0,0 +1,69 @@
+package com.scheduling.service;
+
+import com.scheduling.model.BellSchedule;
+import com.scheduling.model.DayOfWeek;
+import com.scheduling.model.Teacher;
+
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Teacher availability compiled into one slot bitmask per (teacher, day), where bit i set means
+ * the teacher can teach during slot i of the bell schedule. A lesson fits a teacher's availability
+ * when all of its block bits are set, so the check is a single mask test.
+ * Windows are stored per day: today every available day gets the teacher's one daily window,
+ * but {@link #setWindow} can narrow or widen a single day.
+ */
+public class TeacherAvailability {
+    
+    private static final int DAYS = OccupancyGrid.DAYS;
+    
+    private final BellSchedule bellSchedule;
+    private final long[] masks; // [teacher * DAYS + day]
+    
+    /**
+     * @param teachers indexed by their position in this list
+     */
+    public TeacherAvailability(List<Teacher> teachers, BellSchedule bellSchedule) {
+        this.bellSchedule = bellSchedule;
+        this.masks = new long[teachers.size() * DAYS];
+        
+        for (int t = 0; t < teachers.size(); t++) {
+            Teacher teacher = teachers.get(t);
+            if (teacher.getAvailableDays() == null) {
+                continue;
+            }
+            long window = windowMask(teacher.getAvailableStartTime(), teacher.getAvailableEndTime());
+            for (DayOfWeek day : teacher.getAvailableDays()) {
+                masks[t * DAYS + day.ordinal()] = window;
+            }
+        }
+    }
+    
+    /**
+     * Slots that lie entirely within [start, end); no slots if either bound is missing
+     */
+    public long windowMask(LocalTime start, LocalTime end) {
+        if (start == null || end == null) {
+            return 0L;
+        }
+        int first = bellSchedule.firstSlotStartingAtOrAfter(start);
+        int last = bellSchedule.slotsEndingBy(end);
+        return last > first ? OccupancyGrid.blockMask(first, last - first) : 0L;
+    }
+    
+    /**
+     * Replace one day's window of a teacher; a null bound makes the teacher unavailable that day
+     */
+    public void setWindow(int teacher, DayOfWeek day, LocalTime start, LocalTime end) {
+        masks[teacher * DAYS + day.ordinal()] = windowMask(start, end);
+    }
+    
+    public long mask(int teacher, DayOfWeek day) {
+        return masks[teacher * DAYS + day.ordinal()];
+    }
+    
+    public boolean isAvailable(int teacher, DayOfWeek day, long blockMask) {
+        return (masks[teacher * DAYS + day.ordinal()] & blockMask) == blockMask;
+    }
+}
@@ -0,0 +1,222 @@
+package com.scheduling.service;
+
+import com.scheduling.dto.ScheduleRow;
+import com.scheduling.model.DayOfWeek;
+import com.scheduling.model.Schedule;
+import com.scheduling.repository.ScheduleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Precomputed weekly timetables per teacher, section and classroom.
+ * Readers get an immutable snapshot through an {@link AtomicReference}, so "show teacher X's
+ * week" is a map lookup that never touches JPA. The snapshot is built from schedule rows on
+ * first use and then follows {@link ScheduleChangedEvent}s: small changes rebuild only the
+ * affected grids and swap in a new snapshot, large ones (a generation run) reload everything.
+ */
+@Service
+public class TimetableReadModel {
+    
+    public enum View { TEACHER, SECTION, CLASSROOM }
+    
+    // Changes touching more rows than this reload the whole model in one query instead of patching it
+    private static final int PATCH_LIMIT = 500;
+    
+    private static final Comparator<ScheduleRow> WEEK_ORDER = Comparator.comparing(ScheduleRow::getDayOfWeek)
+        .thenComparing(ScheduleRow::getStartTime)
+        .thenComparing(ScheduleRow::getId);
+    
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+    
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+    
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    
+    // Writer-side index of the rows in the current snapshot, guarded by this
+    private final Map<Long, ScheduleRow> rowsById = new HashMap<>();
+    
+    private static final class Snapshot {
+        final long referenceVersion; // rows carry names, so renames of teachers, rooms etc. need a rebuild
+        final List<Map<Long, Map<DayOfWeek, List<ScheduleRow>>>> grids; // indexed by View ordinal
+        
+        Snapshot(long referenceVersion, List<Map<Long, Map<DayOfWeek, List<ScheduleRow>>>> grids) {
+            this.referenceVersion = referenceVersion;
+            this.grids = grids;
+        }
+    }
+    
+    /**
+     * One teacher's, section's or classroom's week, lessons per day in start time order.
+     * Empty if nothing is scheduled for it.
+     */
+    public Map<DayOfWeek, List<ScheduleRow>> week(View view, Long id) {
+        Snapshot current = snapshot.get();
+        if (current == null || current.referenceVersion != referenceDataCache.getVersion()) {
+            current = load();
+        }
+        return current.grids.get(view.ordinal()).getOrDefault(id, Map.of());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public synchronized void onScheduleChanged(ScheduleChangedEvent event) {
+        if (snapshot.get() == null) {
+            return; // the first lookup loads the committed state anyway
+        }
+        if (event.getSaved().size() + event.getRemovedIds().size() > PATCH_LIMIT) {
+            rebuild();
+            return;
+        }
+        
+        Set<Long> changedIds = new HashSet<>(event.getRemovedIds());
+        List<Long> savedIds = new ArrayList<>();
+        for (Schedule schedule : event.getSaved()) {
+            if (schedule.getId() != null) {
+                changedIds.add(schedule.getId());
+                savedIds.add(schedule.getId());
+            }
+        }
+        // Reread saved rows so names and references are the committed ones, not whatever the caller held
+        List<ScheduleRow> fresh = savedIds.isEmpty() ? List.of() : scheduleRepository.findRowsByIdIn(savedIds);
+        patch(changedIds, fresh);
+    }
+    
+    /**
+     * Drop the model; it is rebuilt from the database on the next lookup
+     */
+    public synchronized void invalidate() {
+        snapshot.set(null);
+        rowsById.clear();
+    }
+    
+    private synchronized Snapshot load() {
+        Snapshot current = snapshot.get();
+        if (current == null || current.referenceVersion != referenceDataCache.getVersion()) {
+            rebuild();
+        }
+        return snapshot.get();
+    }
+    
+    private void rebuild() {
+        long referenceVersion = referenceDataCache.getVersion();
+        rowsById.clear();
+        List<Map<Long, List<ScheduleRow>>> rowsByKey = new ArrayList<>();
+        for (View view : View.values()) {
+            rowsByKey.add(new HashMap<>());
+        }
+        for (ScheduleRow row : scheduleRepository.findAllRows()) {
+            if (row.getDayOfWeek() == null || row.getStartTime() == null) {
+                continue;
+            }
+            rowsById.put(row.getId(), row);
+            for (View view : View.values()) {
+                rowsByKey.get(view.ordinal()).computeIfAbsent(key(view, row), key -> new ArrayList<>()).add(row);
+            }
+        }
+        
+        List<Map<Long, Map<DayOfWeek, List<ScheduleRow>>>> grids = new ArrayList<>();
+        for (View view : View.values()) {
+            Map<Long, Map<DayOfWeek, List<ScheduleRow>>> byKey = new HashMap<>();
+            rowsByKey.get(view.ordinal()).forEach((key, rows) -> byKey.put(key, toGrid(rows)));
+            grids.add(Collections.unmodifiableMap(byKey));
+        }
+        snapshot.set(new Snapshot(referenceVersion, List.copyOf(grids)));
+    }
+    
+    private void patch(Set<Long> changedIds, List<ScheduleRow> fresh) {
+        List<Set<Long>> affected = new ArrayList<>();
+        for (View view : View.values()) {
+            affected.add(new HashSet<>());
+        }
+        for (Long id : changedIds) {
+            ScheduleRow previous = rowsById.remove(id);
+            if (previous != null) {
+                markAffected(affected, previous);
+            }
+        }
+        List<ScheduleRow> added = new ArrayList<>();
+        for (ScheduleRow row : fresh) {
+            if (row.getDayOfWeek() != null && row.getStartTime() != null) {
+                rowsById.put(row.getId(), row);
+                markAffected(affected, row);
+                added.add(row);
+            }
+        }
+        
+        // Copy only the outer maps; grids of untouched resources are shared with the old snapshot
+        Snapshot old = snapshot.get();
+        List<Map<Long, Map<DayOfWeek, List<ScheduleRow>>>> grids = new ArrayList<>();
+        for (View view : View.values()) {
+            Map<Long, Map<DayOfWeek, List<ScheduleRow>>> oldByKey = old.grids.get(view.ordinal());
+            Map<Long, Map<DayOfWeek, List<ScheduleRow>>> byKey = new HashMap<>(oldByKey);
+            for (Long key : affected.get(view.ordinal())) {
+                List<ScheduleRow> rows = new ArrayList<>();
+                for (List<ScheduleRow> day : oldByKey.getOrDefault(key, Map.of()).values()) {
+                    for (ScheduleRow row : day) {
+                        if (!changedIds.contains(row.getId())) {
+                            rows.add(row);
+                        }
+                    }
+                }
+                for (ScheduleRow row : added) {
+                    if (key.equals(key(view, row))) {
+                        rows.add(row);
+                    }
+                }
+                if (rows.isEmpty()) {
+                    byKey.remove(key);
+                } else {
+                    byKey.put(key, toGrid(rows));
+                }
+            }
+            grids.add(Collections.unmodifiableMap(byKey));
+        }
+        snapshot.set(new Snapshot(old.referenceVersion, List.copyOf(grids)));
+    }
+    
+    private static void markAffected(List<Set<Long>> affected, ScheduleRow row) {
+        for (View view : View.values()) {
+            Long key = key(view, row);
+            if (key != null) {
+                affected.get(view.ordinal()).add(key);
+            }
+        }
+    }
+    
+    private static Long key(View view, ScheduleRow row) {
+        switch (view) {
+            case TEACHER:
+                return row.getTeacherId();
+            case SECTION:
+                return row.getSectionId();
+            default:
+                return row.getClassroomId();
+        }
+    }
+    
+    private static Map<DayOfWeek, List<ScheduleRow>> toGrid(List<ScheduleRow> rows) {
+        rows.sort(WEEK_ORDER);
+        Map<DayOfWeek, List<ScheduleRow>> byDay = new EnumMap<>(DayOfWeek.class);
+        for (ScheduleRow row : rows) {
+            byDay.computeIfAbsent(row.getDayOfWeek(), day -> new ArrayList<>()).add(row);
+        }
+        byDay.replaceAll((day, dayRows) -> List.copyOf(dayRows));
+        return Collections.unmodifiableMap(byDay);
+    }
+}
@@ -0,0 +1,205 @@
+package com.scheduling.service;
+
+import com.scheduling.dto.ScheduleRow;
+import com.scheduling.model.DayOfWeek;
+import com.scheduling.model.Schedule;
+import com.scheduling.model.ScheduleStatus;
+import com.scheduling.repository.ScheduleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Utilization figures kept up to date on every schedule write instead of recomputed per request:
+ * teacher minutes per day (and so per week), classroom minutes per day and subject minutes per section.
+ * Counters are {@link LongAdder}s, so concurrent writers from the controllers and the solver do not
+ * contend; each {@link ScheduleChangedEvent} swaps a row's previous contribution for its new one.
+ * A scheduled checkpoint folds the counters into an immutable map that readers get in O(1).
+ * Cancelled rows do not count.
+ */
+@Service
+public class UtilizationCounters {
+    
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+    
+    // What each counted row currently adds, so updates and deletes can take it back out
+    private final Map<Long, Contribution> contributions = new ConcurrentHashMap<>();
+    
+    private final Map<Long, Map<Long, LongAdder>> teacherDayMinutes = new ConcurrentHashMap<>();
+    private final Map<Long, Map<Long, LongAdder>> classroomDayMinutes = new ConcurrentHashMap<>();
+    private final Map<Long, Map<Long, LongAdder>> sectionSubjectMinutes = new ConcurrentHashMap<>();
+    private final LongAdder scheduleCount = new LongAdder();
+    private final LongAdder totalMinutes = new LongAdder();
+    
+    private volatile Map<String, Object> checkpoint = Map.of();
+    
+    private static final class Contribution {
+        final Long teacherId;
+        final Long classroomId;
+        final Long sectionId;
+        final Long subjectId;
+        final long day;
+        final long minutes;
+        
+        Contribution(Long teacherId, Long classroomId, Long sectionId, Long subjectId, DayOfWeek day,
+                     LocalTime start, LocalTime end) {
+            this.teacherId = teacherId;
+            this.classroomId = classroomId;
+            this.sectionId = sectionId;
+            this.subjectId = subjectId;
+            this.day = day.ordinal();
+            this.minutes = Duration.between(start, end).toMinutes();
+        }
+    }
+    
+    /**
+     * Count every schedule row once at startup; afterwards only changes are applied
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (ScheduleRow row : scheduleRepository.findAllRows()) {
+            Contribution contribution = row.getStatus() == ScheduleStatus.CANCELLED ? null
+                : toContribution(row.getTeacherId(), row.getClassroomId(), row.getSectionId(), row.getSubjectId(),
+                                 row.getDayOfWeek(), row.getStartTime(), row.getEndTime());
+            apply(row.getId(), contribution);
+        }
+        checkpoint();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        for (Long id : event.getRemovedIds()) {
+            apply(id, null);
+        }
+        for (Schedule schedule : event.getSaved()) {
+            if (schedule.getId() != null) {
+                apply(schedule.getId(), toContribution(schedule));
+            }
+        }
+    }
+    
+    /**
+     * Fold the live counters into the map returned by {@link #snapshot()}
+     */
+    @Scheduled(fixedDelayString = "${scheduling.utilization.checkpoint-ms:5000}")
+    public void checkpoint() {
+        Map<Long, Map<DayOfWeek, Long>> teacherByDay = byDay(teacherDayMinutes);
+        Map<Long, Long> teacherPerWeek = new TreeMap<>();
+        teacherByDay.forEach((teacherId, days) ->
+            teacherPerWeek.put(teacherId, days.values().stream().mapToLong(Long::longValue).sum()));
+        
+        Map<Long, Map<Long, Long>> subjectBySection = new TreeMap<>();
+        sectionSubjectMinutes.forEach((sectionId, subjects) -> {
+            Map<Long, Long> minutes = new TreeMap<>();
+            subjects.forEach((subjectId, adder) -> {
+                long sum = adder.sum();
+                if (sum != 0) {
+                    minutes.put(subjectId, sum);
+                }
+            });
+            if (!minutes.isEmpty()) {
+                subjectBySection.put(sectionId, Collections.unmodifiableMap(minutes));
+            }
+        });
+        
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("checkpointAt", Instant.now());
+        snapshot.put("totalSchedules", scheduleCount.sum());
+        snapshot.put("totalMinutes", totalMinutes.sum());
+        snapshot.put("teacherMinutesByDay", Collections.unmodifiableMap(teacherByDay));
+        snapshot.put("teacherMinutesPerWeek", Collections.unmodifiableMap(teacherPerWeek));
+        snapshot.put("classroomMinutesByDay", Collections.unmodifiableMap(byDay(classroomDayMinutes)));
+        snapshot.put("subjectMinutesBySection", Collections.unmodifiableMap(subjectBySection));
+        checkpoint = Collections.unmodifiableMap(snapshot);
+    }
+    
+    /**
+     * The latest checkpoint; at most one checkpoint interval behind the writes
+     */
+    public Map<String, Object> snapshot() {
+        return checkpoint;
+    }
+    
+    private void apply(Long scheduleId, Contribution contribution) {
+        // The swap is atomic, so concurrent writes to one row each take back exactly what they replace
+        Contribution previous = contribution != null
+            ? contributions.put(scheduleId, contribution)
+            : contributions.remove(scheduleId);
+        if (previous != null) {
+            add(previous, -1);
+        }
+        if (contribution != null) {
+            add(contribution, 1);
+        }
+    }
+    
+    private void add(Contribution contribution, int sign) {
+        long minutes = sign * contribution.minutes;
+        scheduleCount.add(sign);
+        totalMinutes.add(minutes);
+        adder(teacherDayMinutes, contribution.teacherId, contribution.day).add(minutes);
+        adder(classroomDayMinutes, contribution.classroomId, contribution.day).add(minutes);
+        adder(sectionSubjectMinutes, contribution.sectionId, contribution.subjectId).add(minutes);
+    }
+    
+    private static LongAdder adder(Map<Long, Map<Long, LongAdder>> counters, Long outer, Long inner) {
+        return counters.computeIfAbsent(outer != null ? outer : 0L, key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(inner != null ? inner : 0L, key -> new LongAdder());
+    }
+    
+    private static Map<Long, Map<DayOfWeek, Long>> byDay(Map<Long, Map<Long, LongAdder>> counters) {
+        DayOfWeek[] days = DayOfWeek.values();
+        Map<Long, Map<DayOfWeek, Long>> result = new TreeMap<>();
+        counters.forEach((id, byDay) -> {
+            Map<DayOfWeek, Long> minutes = new EnumMap<>(DayOfWeek.class);
+            byDay.forEach((day, adder) -> {
+                long sum = adder.sum();
+                if (sum != 0) {
+                    minutes.put(days[day.intValue()], sum);
+                }
+            });
+            if (!minutes.isEmpty()) {
+                result.put(id, Collections.unmodifiableMap(minutes));
+            }
+        });
+        return result;
+    }
+    
+    private static Contribution toContribution(Schedule schedule) {
+        if (schedule.getStatus() == ScheduleStatus.CANCELLED) {
+            return null;
+        }
+        DayOfWeek day = schedule.getDayOfWeek();
+        if (day == null && schedule.getDate() != null) {
+            day = DayOfWeek.valueOf(schedule.getDate().getDayOfWeek().name());
+        }
+        return toContribution(schedule.getTeacher() != null ? schedule.getTeacher().getId() : null,
+                              schedule.getClassroom() != null ? schedule.getClassroom().getId() : null,
+                              schedule.getSection() != null ? schedule.getSection().getId() : null,
+                              schedule.getSubject() != null ? schedule.getSubject().getId() : null,
+                              day, schedule.getStartTime(), schedule.getEndTime());
+    }
+    
+    private static Contribution toContribution(Long teacherId, Long classroomId, Long sectionId, Long subjectId,
+                                               DayOfWeek day, LocalTime start, LocalTime end) {
+        if (day == null || start == null || end == null) {
+            return null;
+        }
+        return new Contribution(teacherId, classroomId, sectionId, subjectId, day, start, end);
+    }
+}
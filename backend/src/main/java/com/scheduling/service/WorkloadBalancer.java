@@ -0,0 +1,493 @@
+package com.scheduling.service;
+
+import com.scheduling.model.BellSchedule;
+import com.scheduling.model.Classroom;
+import com.scheduling.model.DayOfWeek;
+import com.scheduling.model.Schedule;
+import com.scheduling.model.Section;
+import com.scheduling.model.Teacher;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Local search that evens out teacher workload in a generated timetable.
+ *
+ * Starting from a feasible timetable, lessons of the most loaded teachers are visited first and
+ * the first improving move from these neighborhoods is applied:
+ * - teacher swap: hand the lesson to another qualified teacher who is free at the same time,
+ *   or exchange teachers with a lesson of that teacher
+ * - slot move: move the lesson to another day/start where a less loaded qualified teacher,
+ *   the section and a suitable classroom are free
+ * The objective is the sum of squared deviations of teacher minutes from the mean. Moves never
+ * change the total, so shifting {@code m} minutes from teacher a to teacher b changes it by
+ * {@code 2m(Lb - La + m)}; every candidate is scored in O(1) before any state is touched.
+ * Passes repeat until no move improves or the time budget runs out.
+ */
+public class WorkloadBalancer {
+    
+    private static final DayOfWeek[] WEEK = DayOfWeek.values();
+    
+    private final List<Schedule> schedules;
+    private final List<Teacher> teachers;
+    private final List<Classroom> classrooms;
+    private final BellSchedule bellSchedule;
+    private final OccupancyGrid occupancy;
+    
+    // Per-lesson state, indexed like schedules
+    private final int lessonCount;
+    private final boolean[] movable;
+    private final int[] teacherOf;
+    private final int[] roomOf;
+    private final int[] sectionOf;
+    private final int[] dayOf;
+    private final int[] startOf;
+    private final int[] blocksOf;
+    private final int[][] qualifiedOf;
+    private final int[][] roomsOf;
+    private final int[][] daysOf;
+    
+    // Per-teacher state
+    private final long[] load; // scheduled minutes
+    private final boolean[] eligible;
+    private final TeacherAvailability availability;
+    private final List<List<Integer>> lessonsOf;
+    
+    // Lessons per (section, day, subject), keeps the one-subject-per-day rule intact
+    private final Map<String, Integer> sectionDaySubjects = new HashMap<>();
+    
+    private long deadline;
+    private int passes;
+    private int reassignments;
+    private int swaps;
+    private int slotMoves;
+    private boolean budgetExhausted;
+    private long elapsedMillis;
+    private final long spreadBefore;
+    private final double deviationBefore;
+    
+    public WorkloadBalancer(List<Schedule> schedules, List<Teacher> teachers,
+                            List<Classroom> classrooms, BellSchedule bellSchedule) {
+        this.schedules = schedules;
+        this.teachers = teachers;
+        this.classrooms = classrooms;
+        this.bellSchedule = bellSchedule;
+        this.lessonCount = schedules.size();
+        
+        Set<Section> sections = new LinkedHashSet<>();
+        for (Schedule schedule : schedules) {
+            sections.add(schedule.getSection());
+        }
+        this.occupancy = new OccupancyGrid(teachers, classrooms, sections);
+        
+        this.load = new long[teachers.size()];
+        this.eligible = new boolean[teachers.size()];
+        this.availability = new TeacherAvailability(teachers, bellSchedule);
+        this.lessonsOf = new ArrayList<>();
+        for (int t = 0; t < teachers.size(); t++) {
+            lessonsOf.add(new ArrayList<>());
+        }
+        
+        this.movable = new boolean[lessonCount];
+        this.teacherOf = new int[lessonCount];
+        this.roomOf = new int[lessonCount];
+        this.sectionOf = new int[lessonCount];
+        this.dayOf = new int[lessonCount];
+        this.startOf = new int[lessonCount];
+        this.blocksOf = new int[lessonCount];
+        this.qualifiedOf = new int[lessonCount][];
+        this.roomsOf = new int[lessonCount][];
+        this.daysOf = new int[lessonCount][];
+        
+        Map<String, int[]> qualifiedBySubject = new HashMap<>();
+        Map<String, int[]> roomsByRequirement = new HashMap<>();
+        
+        for (int i = 0; i < lessonCount; i++) {
+            Schedule schedule = schedules.get(i);
+            teacherOf[i] = occupancy.teacherIndex(schedule.getTeacher());
+            roomOf[i] = occupancy.classroomIndex(schedule.getClassroom());
+            sectionOf[i] = occupancy.sectionIndex(schedule.getSection());
+            dayOf[i] = schedule.getDayOfWeek().ordinal();
+            startOf[i] = bellSchedule.slotIndexOf(schedule.getStartTime());
+            int end = bellSchedule.slotIndexOf(schedule.getEndTime());
+            blocksOf[i] = end - startOf[i];
+            
+            String subjectName = schedule.getSubject().getName();
+            qualifiedOf[i] = qualifiedBySubject.computeIfAbsent(subjectName, this::qualifiedTeachers);
+            
+            String roomType = schedule.getSubject().getRequiredRoomType();
+            int capacity = schedule.getSection().getStudentCount();
+            roomsOf[i] = roomsByRequirement.computeIfAbsent(roomType + "|" + capacity,
+                key -> suitableRooms(roomType, capacity));
+            
+            daysOf[i] = SchedulingService.getAvailableDaysForSection(schedule.getSection()).stream()
+                .mapToInt(DayOfWeek::ordinal)
+                .toArray();
+            
+            // Lessons that are not on the bell grid are kept as they are
+            if (teacherOf[i] < 0 || roomOf[i] < 0 || startOf[i] < 0 || end <= startOf[i]) {
+                continue;
+            }
+            movable[i] = true;
+            
+            occupancy.occupy(teacherOf[i], roomOf[i], sectionOf[i], WEEK[dayOf[i]], lessonMask(i));
+            load[teacherOf[i]] += minutes(i);
+            lessonsOf.get(teacherOf[i]).add(i);
+            sectionDaySubjects.merge(subjectKey(i, dayOf[i]), 1, Integer::sum);
+            for (int t : qualifiedOf[i]) {
+                eligible[t] = true;
+            }
+        }
+        
+        // Taken here rather than in balance(), so the report is right even when balance() is skipped
+        this.spreadBefore = spread();
+        this.deviationBefore = standardDeviation();
+    }
+    
+    private int[] qualifiedTeachers(String subjectName) {
+        List<Integer> qualified = new ArrayList<>();
+        for (int t = 0; t < teachers.size(); t++) {
+            Set<String> subjects = teachers.get(t).getSubjects();
+            if (subjects != null && subjects.contains(subjectName)) {
+                qualified.add(t);
+            }
+        }
+        return qualified.stream().mapToInt(Integer::intValue).toArray();
+    }
+    
+    private int[] suitableRooms(String roomType, int capacity) {
+        List<Integer> rooms = new ArrayList<>();
+        for (int c = 0; c < classrooms.size(); c++) {
+            Classroom classroom = classrooms.get(c);
+            if (classroom.getCapacity() >= capacity &&
+                (classroom.getRoomType().equals(roomType) || "Any".equals(roomType))) {
+                rooms.add(c);
+            }
+        }
+        return rooms.stream().mapToInt(Integer::intValue).toArray();
+    }
+    
+    /**
+     * Run improvement passes until a local optimum is reached or the budget runs out.
+     * Schedules are updated in place.
+     */
+    public void balance(long timeBudgetMillis) {
+        long startedAt = System.currentTimeMillis();
+        this.deadline = startedAt + timeBudgetMillis;
+        
+        boolean improved = true;
+        while (improved && !isTimeUp()) {
+            improved = false;
+            passes++;
+            
+            List<Integer> order = new ArrayList<>();
+            for (int i = 0; i < lessonCount; i++) {
+                if (movable[i]) {
+                    order.add(i);
+                }
+            }
+            order.sort((a, b) -> Long.compare(load[teacherOf[b]], load[teacherOf[a]]));
+            
+            for (int lesson : order) {
+                if (isTimeUp()) {
+                    break;
+                }
+                if (tryReassign(lesson) || trySwap(lesson) || trySlotMove(lesson)) {
+                    improved = true;
+                }
+            }
+        }
+        
+        elapsedMillis = System.currentTimeMillis() - startedAt;
+    }
+    
+    private boolean isTimeUp() {
+        if (System.currentTimeMillis() >= deadline) {
+            budgetExhausted = true;
+        }
+        return budgetExhausted;
+    }
+    
+    /**
+     * Change in the sum of squared deviations when {@code minutes} move from teacher a to teacher b
+     */
+    private long delta(int from, int to, long minutes) {
+        return 2 * minutes * (load[to] - load[from] + minutes);
+    }
+    
+    /**
+     * Give the lesson to the qualified teacher free at the same time that improves the balance most
+     */
+    private boolean tryReassign(int lesson) {
+        int from = teacherOf[lesson];
+        long minutes = minutes(lesson);
+        DayOfWeek day = WEEK[dayOf[lesson]];
+        long mask = lessonMask(lesson);
+        
+        int best = -1;
+        long bestDelta = 0;
+        for (int to : qualifiedOf[lesson]) {
+            long change = delta(from, to, minutes);
+            if (to == from || change >= bestDelta) {
+                continue;
+            }
+            if (canTeach(to, dayOf[lesson], startOf[lesson], blocksOf[lesson]) &&
+                occupancy.isTeacherFree(to, day, mask)) {
+                best = to;
+                bestDelta = change;
+            }
+        }
+        
+        if (best < 0) {
+            return false;
+        }
+        int lessonDay = dayOf[lesson];
+        int lessonStart = startOf[lesson];
+        unassign(lesson);
+        assign(lesson, best, roomOf[lesson], lessonDay, lessonStart);
+        reassignments++;
+        return true;
+    }
+    
+    /**
+     * Exchange teachers with a lesson of another qualified teacher when the net minutes moved
+     * improve the balance and both teachers are free for their new lesson
+     */
+    private boolean trySwap(int lesson) {
+        int from = teacherOf[lesson];
+        Set<String> fromSubjects = teachers.get(from).getSubjects();
+        
+        for (int to : qualifiedOf[lesson]) {
+            if (to == from || load[to] >= load[from]) {
+                continue;
+            }
+            if (!canTeach(to, dayOf[lesson], startOf[lesson], blocksOf[lesson])) {
+                continue;
+            }
+            
+            for (int other : lessonsOf.get(to)) {
+                long net = minutes(lesson) - minutes(other);
+                if (net == 0 || delta(from, to, net) >= 0) {
+                    continue;
+                }
+                if (!fromSubjects.contains(schedules.get(other).getSubject().getName()) ||
+                    !canTeach(from, dayOf[other], startOf[other], blocksOf[other])) {
+                    continue;
+                }
+                
+                // Each teacher gives up one lesson, so ignore that lesson's slots when checking the other
+                long lessonMask = lessonMask(lesson);
+                long otherMask = lessonMask(other);
+                boolean sameDay = dayOf[lesson] == dayOf[other];
+                long toBusy = occupancy.getTeacherSlots(to, WEEK[dayOf[lesson]]) & ~(sameDay ? otherMask : 0L);
+                long fromBusy = occupancy.getTeacherSlots(from, WEEK[dayOf[other]]) & ~(sameDay ? lessonMask : 0L);
+                if ((toBusy & lessonMask) != 0 || (fromBusy & otherMask) != 0) {
+                    continue;
+                }
+                
+                int lessonDay = dayOf[lesson];
+                int lessonStart = startOf[lesson];
+                int otherDay = dayOf[other];
+                int otherStart = startOf[other];
+                unassign(lesson);
+                unassign(other);
+                assign(lesson, to, roomOf[lesson], lessonDay, lessonStart);
+                assign(other, from, roomOf[other], otherDay, otherStart);
+                swaps++;
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Move the lesson to another day/start where a less loaded qualified teacher is free.
+     * The current classroom is kept when it is free, otherwise any suitable free room is used.
+     */
+    private boolean trySlotMove(int lesson) {
+        int from = teacherOf[lesson];
+        long minutes = minutes(lesson);
+        int blocks = blocksOf[lesson];
+        long startSlots = bellSchedule.getRunStarts(blocks);
+        
+        List<Integer> candidates = new ArrayList<>();
+        for (int to : qualifiedOf[lesson]) {
+            if (to != from && delta(from, to, minutes) < 0) {
+                candidates.add(to);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return false;
+        }
+        candidates.sort((a, b) -> Long.compare(load[a], load[b]));
+        
+        int fromRoom = roomOf[lesson];
+        int fromDay = dayOf[lesson];
+        int fromStart = startOf[lesson];
+        unassign(lesson);
+        for (int to : candidates) {
+            for (int day : daysOf[lesson]) {
+                if (hasSameSubjectOnDay(lesson, day)) {
+                    continue;
+                }
+                for (long starts = startSlots; starts != 0; starts &= starts - 1) {
+                    int start = Long.numberOfTrailingZeros(starts);
+                    if (!canTeach(to, day, start, blocks)) {
+                        continue;
+                    }
+                    long mask = OccupancyGrid.blockMask(start, blocks);
+                    if (!occupancy.isSectionFree(sectionOf[lesson], WEEK[day], mask) ||
+                        !occupancy.isTeacherFree(to, WEEK[day], mask)) {
+                        continue;
+                    }
+                    int room = freeRoom(lesson, fromRoom, WEEK[day], mask);
+                    if (room < 0) {
+                        continue;
+                    }
+                    
+                    assign(lesson, to, room, day, start);
+                    slotMoves++;
+                    return true;
+                }
+            }
+            if (isTimeUp()) {
+                break;
+            }
+        }
+        assign(lesson, from, fromRoom, fromDay, fromStart);
+        return false;
+    }
+    
+    private int freeRoom(int lesson, int preferredRoom, DayOfWeek day, long mask) {
+        if (occupancy.isClassroomFree(preferredRoom, day, mask)) {
+            return preferredRoom;
+        }
+        for (int room : roomsOf[lesson]) {
+            if (occupancy.isClassroomFree(room, day, mask)) {
+                return room;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Take a lesson out of the occupancy, load and subject bookkeeping; its slot fields are kept
+     */
+    private void unassign(int lesson) {
+        int teacher = teacherOf[lesson];
+        occupancy.release(teacher, roomOf[lesson], sectionOf[lesson], WEEK[dayOf[lesson]], lessonMask(lesson));
+        sectionDaySubjects.merge(subjectKey(lesson, dayOf[lesson]), -1, Integer::sum);
+        load[teacher] -= minutes(lesson);
+        lessonsOf.get(teacher).remove(Integer.valueOf(lesson));
+    }
+    
+    /**
+     * Put an unassigned lesson at the given teacher, room and slot and update its schedule entity
+     */
+    private void assign(int lesson, int teacher, int room, int day, int start) {
+        boolean slotChanged = day != dayOf[lesson] || start != startOf[lesson];
+        teacherOf[lesson] = teacher;
+        roomOf[lesson] = room;
+        dayOf[lesson] = day;
+        startOf[lesson] = start;
+        
+        occupancy.occupy(teacher, room, sectionOf[lesson], WEEK[day], lessonMask(lesson));
+        sectionDaySubjects.merge(subjectKey(lesson, day), 1, Integer::sum);
+        load[teacher] += minutes(lesson);
+        lessonsOf.get(teacher).add(lesson);
+        
+        Schedule schedule = schedules.get(lesson);
+        schedule.setTeacher(teachers.get(teacher));
+        schedule.setClassroom(classrooms.get(room));
+        if (slotChanged) {
+            schedule.setDayOfWeek(WEEK[day]);
+            schedule.setStartTime(bellSchedule.getSlotStart(start));
+            schedule.setEndTime(bellSchedule.getSlotEnd(start + blocksOf[lesson] - 1));
+            schedule.setNotes(SchedulingService.autoGeneratedNotes(schedule));
+        }
+    }
+    
+    private boolean canTeach(int teacher, int day, int start, int blocks) {
+        return availability.isAvailable(teacher, WEEK[day], OccupancyGrid.blockMask(start, blocks));
+    }
+    
+    private boolean hasSameSubjectOnDay(int lesson, int day) {
+        return sectionDaySubjects.getOrDefault(subjectKey(lesson, day), 0) > 0;
+    }
+    
+    private String subjectKey(int lesson, int day) {
+        return sectionOf[lesson] + "-" + day + "-" + schedules.get(lesson).getSubject().getName();
+    }
+    
+    private long lessonMask(int lesson) {
+        return OccupancyGrid.blockMask(startOf[lesson], blocksOf[lesson]);
+    }
+    
+    private long minutes(int lesson) {
+        return (long) blocksOf[lesson] * bellSchedule.getSlotMinutes();
+    }
+    
+    /**
+     * Difference between the most and least loaded teacher, in minutes, over teachers qualified
+     * for at least one scheduled subject
+     */
+    public long spread() {
+        long max = Long.MIN_VALUE;
+        long min = Long.MAX_VALUE;
+        for (int t = 0; t < load.length; t++) {
+            if (eligible[t]) {
+                max = Math.max(max, load[t]);
+                min = Math.min(min, load[t]);
+            }
+        }
+        return max == Long.MIN_VALUE ? 0 : max - min;
+    }
+    
+    /**
+     * Standard deviation of teacher minutes over teachers qualified for at least one scheduled subject
+     */
+    public double standardDeviation() {
+        int count = 0;
+        long total = 0;
+        for (int t = 0; t < load.length; t++) {
+            if (eligible[t]) {
+                count++;
+                total += load[t];
+            }
+        }
+        if (count == 0) {
+            return 0;
+        }
+        
+        double mean = (double) total / count;
+        double sum = 0;
+        for (int t = 0; t < load.length; t++) {
+            if (eligible[t]) {
+                sum += (load[t] - mean) * (load[t] - mean);
+            }
+        }
+        return Math.sqrt(sum / count);
+    }
+    
+    public Map<String, Object> toStatistics() {
+        long spreadAfter = spread();
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("spreadBeforeMinutes", spreadBefore);
+        statistics.put("spreadAfterMinutes", spreadAfter);
+        statistics.put("spreadNarrowedMinutes", spreadBefore - spreadAfter);
+        statistics.put("stdDevBeforeMinutes", Math.round(deviationBefore * 100) / 100.0);
+        statistics.put("stdDevAfterMinutes", Math.round(standardDeviation() * 100) / 100.0);
+        statistics.put("passes", passes);
+        statistics.put("reassignments", reassignments);
+        statistics.put("swaps", swaps);
+        statistics.put("slotMoves", slotMoves);
+        statistics.put("budgetExhausted", budgetExhausted);
+        statistics.put("elapsedMs", elapsedMillis);
+        return statistics;
+    }
+}
@@ -0,0 +1,89 @@
+package com.scheduling.repository;
+
+import com.scheduling.model.DayOfWeek;
+import com.scheduling.model.Section;
+import com.scheduling.model.Teacher;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the reference data loaders initialize the element collections in a fixed number of
+ * statements, however many teachers and sections there are, instead of one extra select per row.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ReferenceDataFetchTest {
+    
+    private static final int COUNT = 25;
+    
+    @Autowired
+    private TestEntityManager testEntityManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private TeacherRepository teacherRepository;
+    
+    @Autowired
+    private SectionRepository sectionRepository;
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < COUNT; i++) {
+            testEntityManager.persist(new Teacher("First" + i, "Last" + i, "teacher" + i + "@school.test",
+                                                  new HashSet<>(Set.of("Math", "Science")),
+                                                  LocalTime.of(8, 0), LocalTime.of(17, 0),
+                                                  new HashSet<>(Set.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY))));
+            testEntityManager.persist(new Section("Section " + i, "Grade 7", 30,
+                                                  new HashSet<>(Set.of(DayOfWeek.MONDAY, DayOfWeek.FRIDAY))));
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+        
+        // Start from an empty persistence context and second-level cache, so every load hits the database
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+    
+    @Test
+    void teachersLoadWithBothCollectionsInTwoStatements() {
+        List<Teacher> teachers = teacherRepository.findAllWithCollections();
+        
+        int elements = 0;
+        for (Teacher teacher : teachers) {
+            elements += teacher.getSubjects().size() + teacher.getAvailableDays().size();
+        }
+        assertThat(teachers).hasSize(COUNT);
+        assertThat(elements).isEqualTo(COUNT * 4);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+    
+    @Test
+    void sectionsLoadWithAvailableDaysInOneStatement() {
+        List<Section> sections = sectionRepository.findAllWithAvailableDays();
+        
+        int elements = 0;
+        for (Section section : sections) {
+            elements += section.getAvailableDays().size();
+        }
+        assertThat(sections).hasSize(COUNT);
+        assertThat(elements).isEqualTo(COUNT * 2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
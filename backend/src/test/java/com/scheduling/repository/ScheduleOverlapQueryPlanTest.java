@@ -0,0 +1,116 @@
+package com.scheduling.repository;
+
+import com.scheduling.model.Classroom;
+import com.scheduling.model.DayOfWeek;
+import com.scheduling.model.Section;
+import com.scheduling.model.Teacher;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks with H2's EXPLAIN that the overlap queries of {@link ScheduleRepository} are served by
+ * a range scan of the schedules indexes: the index condition must include the start_time bound,
+ * not just the resource and day prefix, and there must be no table scan. Each test runs the repository method, captures
+ * the SQL Hibernate generated for it and explains that statement; H2 plans it without the
+ * parameters being bound.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                          "com.scheduling.repository.ScheduleOverlapQueryPlanTest$CapturingInspector")
+class ScheduleOverlapQueryPlanTest {
+    
+    private static final LocalDate DATE = LocalDate.of(2024, 9, 2);
+    private static final LocalTime START = LocalTime.of(9, 0);
+    private static final LocalTime END = LocalTime.of(10, 0);
+    
+    /**
+     * Records every statement Hibernate prepares; Hibernate creates it from the property above
+     */
+    public static class CapturingInspector implements StatementInspector {
+        
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+        
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+    
+    @Autowired
+    private TestEntityManager testEntityManager;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+    
+    private Teacher teacher;
+    private Classroom classroom;
+    private Section section;
+    
+    @BeforeEach
+    void setUp() {
+        teacher = testEntityManager.persist(new Teacher("Ada", "Lovelace", "ada@school.test", Set.of("Math"),
+                                                        LocalTime.of(8, 0), LocalTime.of(17, 0),
+                                                        Set.of(DayOfWeek.MONDAY)));
+        classroom = testEntityManager.persist(new Classroom("Room 101", "Lecture", 40, "Main", null));
+        section = testEntityManager.persist(new Section("Section A", "Grade 7", 30, Set.of(DayOfWeek.MONDAY)));
+        testEntityManager.flush();
+        CapturingInspector.STATEMENTS.clear();
+    }
+    
+    @Test
+    void teacherOverlapUsesTeacherDateIndex() {
+        scheduleRepository.findConflictingTeacherSchedules(teacher, DATE, START, END);
+        
+        assertPlanUsesIndex(capturedScheduleSelect(), "idx_schedules_teacher_date");
+    }
+    
+    @Test
+    void classroomOverlapUsesClassroomDateIndex() {
+        scheduleRepository.findConflictingClassroomSchedules(classroom, DATE, START, END);
+        
+        assertPlanUsesIndex(capturedScheduleSelect(), "idx_schedules_classroom_date");
+    }
+    
+    @Test
+    void sectionOverlapUsesSectionDayIndex() {
+        scheduleRepository.findConflictingSectionSchedules(section, DayOfWeek.MONDAY, START, END);
+        
+        assertPlanUsesIndex(capturedScheduleSelect(), "idx_schedules_section_day");
+    }
+    
+    private static String capturedScheduleSelect() {
+        List<String> selects = CapturingInspector.STATEMENTS.stream()
+            .filter(sql -> sql.toLowerCase().startsWith("select") && sql.toLowerCase().contains(" from schedules "))
+            .toList();
+        assertThat(selects).as("schedule selects issued by the repository method").hasSize(1);
+        return selects.get(0);
+    }
+    
+    private void assertPlanUsesIndex(String sql, String index) {
+        String plan = jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + sql),
+                                         resultSet -> resultSet.next() ? resultSet.getString(1) : "");
+        String lowerPlan = plan.toLowerCase();
+        assertThat(lowerPlan).as("plan for %s", sql).contains("public." + index + ":").doesNotContain("tablescan");
+        
+        // The condition H2 pushes into the index, e.g. /* PUBLIC.IDX_...: START_TIME < ?3 AND ... */
+        int conditionStart = lowerPlan.indexOf("public." + index + ":");
+        String indexCondition = lowerPlan.substring(conditionStart, lowerPlan.indexOf("*/", conditionStart));
+        assertThat(indexCondition).as("index condition in %s", plan).contains("start_time <");
+    }
+}